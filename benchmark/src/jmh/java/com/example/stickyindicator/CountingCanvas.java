@@ -0,0 +1,98 @@
+package com.example.stickyindicator;
+
+/**
+ * 只统计图元数量的绘制目标,用于在JVM上测量每一帧的绘制调用次数
+ */
+final class CountingCanvas implements IndicatorCanvas {
+    long circles;
+    long lines;
+    long points;
+    long rings;
+    long paths;
+
+    /**
+     * 最后一个图元的坐标,避免JIT把整段绘制计算当作无用代码消除
+     */
+    float lastX;
+
+    @Override
+    public void drawCircle(float cx, float cy, float radius, int paint) {
+        circles++;
+        lastX = cx;
+    }
+
+    @Override
+    public void drawLine(float startX, float startY, float stopX, float stopY, int paint) {
+        lines++;
+        lastX = stopX;
+    }
+
+    @Override
+    public void drawPoints(float[] pts, int offset, int count, float size, int paint) {
+        points++;
+        lastX = pts[offset + count - 2];
+    }
+
+    @Override
+    public void drawLines(float[] pts, int offset, int count, int paint) {
+        lines++;
+        lastX = pts[offset + count - 2];
+    }
+
+    @Override
+    public void buildCirclePath(float[] circles, int offset, int count) {
+        lastX = circles[offset + count - 3];
+    }
+
+    @Override
+    public void drawCirclePath(int paint) {
+        paths++;
+    }
+
+    @Override
+    public void drawRing(float cx, float cy, float radius, float strokeWidth) {
+        rings++;
+        lastX = cx;
+    }
+
+    @Override
+    public void pathReset() {
+    }
+
+    @Override
+    public void pathMoveTo(float x, float y) {
+        lastX = x;
+    }
+
+    @Override
+    public void pathLineTo(float x, float y) {
+        lastX = x;
+    }
+
+    @Override
+    public void pathQuadTo(float x1, float y1, float x2, float y2) {
+        lastX = x2;
+    }
+
+    @Override
+    public void pathCubicTo(float x1, float y1, float x2, float y2, float x3, float y3) {
+        lastX = x3;
+    }
+
+    @Override
+    public void drawPath(int paint) {
+        paths++;
+    }
+
+    long drawOps(){
+        return circles + lines + points + rings + paths;
+    }
+
+    void reset(){
+        circles = 0;
+        lines = 0;
+        points = 0;
+        rings = 0;
+        paths = 0;
+    }
+}
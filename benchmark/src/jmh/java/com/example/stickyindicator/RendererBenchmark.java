@@ -0,0 +1,181 @@
+package com.example.stickyindicator;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 指示器核心的基准测试,覆盖逐帧绘制、点击判断和测量
+ * 运行:./gradlew :benchmark:jmh,结果写入build/reports/jmh/results.json,
+ * 每次操作分配的字节数见gc.alloc.rate.norm,每帧的图元数量见drawOps等计数器
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class RendererBenchmark {
+    /**
+     * 60fps时一帧的时长
+     */
+    private static final long FRAME = 16;
+
+    /**
+     * 1080p屏幕的宽度
+     */
+    private static final float CLIP_WIDTH = 1080;
+
+    @Param({"5", "50", "500", "10000"})
+    public int count;
+
+    /**
+     * 0:实心圆点,1:空心圆点,2:长条
+     */
+    @Param({"0", "1", "2"})
+    public int style;
+
+    /**
+     * 是否用元球查找表绘制粘连部分,只影响圆点风格
+     */
+    @Param({"false", "true"})
+    public boolean metaball;
+
+    private IndicatorRenderer mRenderer;
+    private CountingCanvas mCanvas;
+
+    private long mNow;
+    private float mHitX;
+    private int mWidth;
+
+    /**
+     * 每帧的图元数量,以每次操作的平均值输出到结果中
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class DrawCounters {
+        public long drawOps;
+        public long circles;
+        public long lines;
+        public long points;
+        public long paths;
+
+        @Setup(Level.Iteration)
+        public void reset(){
+            drawOps = 0;
+            circles = 0;
+            lines = 0;
+            points = 0;
+            paths = 0;
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setUp(){
+        mRenderer = new IndicatorRenderer();
+        mRenderer.setCount(count);
+        mRenderer.setStyle(style);
+        mRenderer.setRadius(10);
+        mRenderer.setInterval(20);
+        mRenderer.setStripWidth(30);
+        mRenderer.setStripHeight(10);
+        mRenderer.allowAnim(true);
+        mRenderer.useMetaball(metaball);
+
+        mRenderer.measure(true,0,true,0);
+        mRenderer.setHeight(mRenderer.getMeasuredHeight());
+        mWidth = mRenderer.getMeasuredWidth();
+
+        mCanvas = new CountingCanvas();
+        mNow = 0;
+        nextTransition();
+    }
+
+    /**
+     * 推进一帧动画并绘制,动画结束后切换到下一个位置,使每一帧都处于过渡中
+     */
+    @Benchmark
+    public float drawFrame(DrawCounters counters){
+        mNow += FRAME;
+        if(!mRenderer.tick(mNow)){
+            nextTransition();
+        }
+
+        mCanvas.reset();
+        mRenderer.draw(mCanvas,true);
+
+        counters.drawOps += mCanvas.drawOps();
+        counters.circles += mCanvas.circles;
+        counters.lines += mCanvas.lines;
+        counters.points += mCanvas.points;
+        counters.paths += mCanvas.paths;
+        return mCanvas.lastX;
+    }
+
+    /**
+     * 与drawFrame相同,但只有屏幕宽度的一段可见,例如指示器超出屏幕或局部重绘
+     */
+    @Benchmark
+    public float drawFrameClipped(DrawCounters counters){
+        mNow += FRAME;
+        if(!mRenderer.tick(mNow)){
+            nextTransition();
+        }
+
+        mCanvas.reset();
+        mRenderer.draw(mCanvas,true,0,0,CLIP_WIDTH,Float.POSITIVE_INFINITY);
+
+        counters.drawOps += mCanvas.drawOps();
+        counters.circles += mCanvas.circles;
+        counters.lines += mCanvas.lines;
+        counters.points += mCanvas.points;
+        counters.paths += mCanvas.paths;
+        return mCanvas.lastX;
+    }
+
+    /**
+     * 依次在指示器的各个位置判断点击
+     */
+    @Benchmark
+    public int hitTest(){
+        mHitX += 7.3f;
+        if(mHitX > mWidth){
+            mHitX -= mWidth;
+        }
+        return mRenderer.pointerOnPosition(mHitX,mRenderer.getMeasuredHeight() / 2,1);
+    }
+
+    /**
+     * 以固定宽度重复测量,命中测量缓存
+     */
+    @Benchmark
+    public int measure(){
+        mRenderer.measure(false,mWidth,true,0);
+        return mRenderer.getMeasuredHeight();
+    }
+
+    /**
+     * 数量变化后的测量,缓存失效,需要重新计算并放置当前圆点/长条
+     */
+    @Benchmark
+    public int measureAfterCountChange(){
+        mRenderer.setCount(count);
+        mRenderer.measure(false,mWidth,true,0);
+        return mRenderer.getMeasuredHeight();
+    }
+
+    private void nextTransition(){
+        int next = mRenderer.getCurrentIndex() + 1;
+        if(next >= count){
+            next = 0;
+        }
+        mRenderer.setPosition(next);
+        mRenderer.startTransition(mNow);
+    }
+}
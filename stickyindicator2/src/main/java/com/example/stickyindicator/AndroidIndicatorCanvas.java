@@ -0,0 +1,117 @@
+package com.example.stickyindicator;
+
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.graphics.Path;
+
+/**
+ * 把{@link IndicatorCanvas}的图元转发给Android的Canvas
+ */
+final class AndroidIndicatorCanvas implements IndicatorCanvas {
+    private Canvas mCanvas;
+
+    private final Paint mBackPaint;
+    private final Paint mPaint;
+    private final Paint mFlashPaint;
+
+    /**
+     * 每一帧复用,避免绘制时分配对象
+     */
+    private final Path mPath = new Path();
+
+    /**
+     * 合并绘制多个圆时使用的路径,圆的位置不变时每一帧直接绘制,HWUI可以复用路径缓存
+     */
+    private final Path mCirclesPath = new Path();
+
+    AndroidIndicatorCanvas(Paint backPaint,Paint paint,Paint flashPaint){
+        mBackPaint = backPaint;
+        mPaint = paint;
+        mFlashPaint = flashPaint;
+    }
+
+    /**
+     * 设置本次绘制的Canvas
+     * @param canvas
+     */
+    void setCanvas(Canvas canvas){
+        mCanvas = canvas;
+    }
+
+    @Override
+    public void drawCircle(float cx, float cy, float radius, int paint) {
+        mCanvas.drawCircle(cx,cy,radius,getPaint(paint));
+    }
+
+    @Override
+    public void drawLine(float startX, float startY, float stopX, float stopY, int paint) {
+        mCanvas.drawLine(startX,startY,stopX,stopY,getPaint(paint));
+    }
+
+    @Override
+    public void drawPoints(float[] pts, int offset, int count, float size, int paint) {
+        final Paint p = getPaint(paint);
+        p.setStrokeWidth(size);
+        mCanvas.drawPoints(pts,offset,count,p);
+    }
+
+    @Override
+    public void drawLines(float[] pts, int offset, int count, int paint) {
+        mCanvas.drawLines(pts,offset,count,getPaint(paint));
+    }
+
+    @Override
+    public void buildCirclePath(float[] circles, int offset, int count) {
+        final Path path = mCirclesPath;
+        path.rewind();
+        final int end = offset + count;
+        for(int i = offset;i + 2 < end;i += 3){
+            path.addCircle(circles[i],circles[i + 1],circles[i + 2],Path.Direction.CW);
+        }
+    }
+
+    @Override
+    public void drawCirclePath(int paint) {
+        mCanvas.drawPath(mCirclesPath,getPaint(paint));
+    }
+
+    @Override
+    public void drawRing(float cx, float cy, float radius, float strokeWidth) {
+        mFlashPaint.setStrokeWidth(strokeWidth);
+        mCanvas.drawCircle(cx,cy,radius,mFlashPaint);
+    }
+
+    @Override
+    public void pathReset() {
+        mPath.reset();
+    }
+
+    @Override
+    public void pathMoveTo(float x, float y) {
+        mPath.moveTo(x,y);
+    }
+
+    @Override
+    public void pathLineTo(float x, float y) {
+        mPath.lineTo(x,y);
+    }
+
+    @Override
+    public void pathQuadTo(float x1, float y1, float x2, float y2) {
+        mPath.quadTo(x1,y1,x2,y2);
+    }
+
+    @Override
+    public void pathCubicTo(float x1, float y1, float x2, float y2, float x3, float y3) {
+        mPath.cubicTo(x1,y1,x2,y2,x3,y3);
+    }
+
+    @Override
+    public void drawPath(int paint) {
+        mCanvas.drawPath(mPath,getPaint(paint));
+    }
+
+    private Paint getPaint(int paint){
+        return paint == PAINT_BACK ? mBackPaint : mPaint;
+    }
+}
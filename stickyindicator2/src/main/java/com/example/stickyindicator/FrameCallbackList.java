@@ -0,0 +1,80 @@
+package com.example.stickyindicator;
+
+import java.util.ArrayList;
+
+/**
+ * 帧时钟的回调列表
+ * 回调过程中可以添加或移除回调:被移除的回调先置为null,回调结束后再统一清理,
+ * 新添加的回调从下一帧开始调用
+ */
+final class FrameCallbackList {
+    private final ArrayList<FrameClock.Callback> mCallbacks = new ArrayList<>();
+
+    private boolean isDispatching;
+    private boolean hasRemoved;
+
+    /**
+     * @return 是否添加成功,已经添加过时返回false
+     */
+    boolean add(FrameClock.Callback callback){
+        if(mCallbacks.contains(callback)){
+            return false;
+        }
+        mCallbacks.add(callback);
+        return true;
+    }
+
+    void remove(FrameClock.Callback callback){
+        final int index = mCallbacks.indexOf(callback);
+        if(index < 0){
+            return;
+        }
+
+        if(isDispatching){
+            mCallbacks.set(index,null);
+            hasRemoved = true;
+        }else{
+            mCallbacks.remove(index);
+        }
+    }
+
+    /**
+     * 依次调用所有回调
+     * @return 调用结束后是否还有回调,需要继续驱动下一帧
+     */
+    boolean dispatch(long frameTimeMillis){
+        isDispatching = true;
+        final int size = mCallbacks.size();
+        for(int i = 0;i < size;i++){
+            final FrameClock.Callback callback = mCallbacks.get(i);
+            if(callback != null){
+                callback.onFrame(frameTimeMillis);
+            }
+        }
+        isDispatching = false;
+
+        if(hasRemoved){
+            hasRemoved = false;
+            for(int i = mCallbacks.size() - 1;i >= 0;i--){
+                if(mCallbacks.get(i) == null){
+                    mCallbacks.remove(i);
+                }
+            }
+        }
+        return !mCallbacks.isEmpty();
+    }
+
+    boolean isEmpty(){
+        return mCallbacks.isEmpty();
+    }
+
+    int size(){
+        int size = 0;
+        for(int i = 0;i < mCallbacks.size();i++){
+            if(mCallbacks.get(i) != null){
+                size++;
+            }
+        }
+        return size;
+    }
+}
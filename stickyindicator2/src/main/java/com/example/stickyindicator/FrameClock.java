@@ -0,0 +1,27 @@
+package com.example.stickyindicator;
+
+/**
+ * 驱动指示器动画的时间源和帧驱动
+ * 默认使用与屏幕刷新同步的时钟;可以通过{@link StickyIndicator#setFrameClock(FrameClock)}替换,
+ * 例如在JVM测试中用{@link ManualFrameClock}逐帧推进,或让多个指示器跟随同一个外部时钟
+ */
+public interface FrameClock {
+    interface Callback {
+        /**
+         * @param frameTimeMillis 当前帧的时间,与{@link FrameClock#now()}同一时基
+         */
+        void onFrame(long frameTimeMillis);
+    }
+
+    /**
+     * 当前时间,单位毫秒,动画的开始时间由它决定
+     */
+    long now();
+
+    /**
+     * 注册后每一帧回调一次,直到被移除;重复注册无效
+     */
+    void add(Callback callback);
+
+    void remove(Callback callback);
+}
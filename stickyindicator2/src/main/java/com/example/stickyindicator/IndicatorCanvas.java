@@ -0,0 +1,72 @@
+package com.example.stickyindicator;
+
+/**
+ * 指示器的绘制目标
+ * {@link IndicatorRenderer}只通过这些图元绘制,不依赖Android的Canvas和Paint,
+ * 在Android上由{@link AndroidIndicatorCanvas}转发给Canvas,在JVM上可以替换为计数或录制的实现
+ */
+interface IndicatorCanvas {
+    /**
+     * 未选的圆点/长条
+     */
+    int PAINT_BACK = 0;
+
+    /**
+     * 当前的圆点/长条
+     */
+    int PAINT_FORE = 1;
+
+    void drawCircle(float cx,float cy,float radius,int paint);
+
+    void drawLine(float startX,float startY,float stopX,float stopY,int paint);
+
+    /**
+     * 一次绘制多个圆点
+     * @param pts 每两个值为一个圆心
+     * @param offset 起始位置
+     * @param count 使用的值的个数
+     * @param size 圆点的直径
+     */
+    void drawPoints(float[] pts,int offset,int count,float size,int paint);
+
+    /**
+     * 一次绘制多条线段
+     * @param pts 每四个值为一条线段的起点和终点
+     * @param offset 起始位置
+     * @param count 使用的值的个数
+     */
+    void drawLines(float[] pts,int offset,int count,int paint);
+
+    /**
+     * 把多个圆合并为一条路径,路径由实现类保存,只在圆的位置变化时重新构建
+     * @param circles 每三个值为一个圆的圆心和半径
+     * @param offset 起始位置
+     * @param count 使用的值的个数
+     */
+    void buildCirclePath(float[] circles,int offset,int count);
+
+    /**
+     * 绘制{@link #buildCirclePath(float[], int, int)}构建的路径
+     */
+    void drawCirclePath(int paint);
+
+    /**
+     * 绘制闪光圆环
+     */
+    void drawRing(float cx,float cy,float radius,float strokeWidth);
+
+    /**
+     * 以下方法用于构建并绘制一条路径,路径对象由实现类复用
+     */
+    void pathReset();
+
+    void pathMoveTo(float x,float y);
+
+    void pathLineTo(float x,float y);
+
+    void pathQuadTo(float x1,float y1,float x2,float y2);
+
+    void pathCubicTo(float x1,float y1,float x2,float y2,float x3,float y3);
+
+    void drawPath(int paint);
+}
@@ -0,0 +1,170 @@
+package com.example.stickyindicator;
+
+/**
+ * 圆点/长条的几何模型
+ * 每次布局(测量结果或窗口变化)时把所有圆点/长条的锚点坐标和缩放比例计算到数组中,
+ * 绘制、点击判断和跟随滑动都直接读取,不再逐个重新计算。不依赖任何Android类
+ */
+final class IndicatorGeometry {
+    private boolean isStrip;
+    private int mSlotCount;
+
+    /**
+     * 第0个圆点/长条的锚点X坐标(圆点为圆心,长条为起点)和相邻锚点的距离
+     */
+    private float mBase;
+    private float mPitch;
+
+    /**
+     * 圆点的半径或长条的长度,以及圆点/长条高度的一半
+     */
+    private float mRadius;
+    private float mStripWidth;
+    private float mHalfHeight;
+
+    /**
+     * 锚点左右两侧被圆点/长条占据的宽度
+     */
+    private float mLeftExtent;
+    private float mRightExtent;
+
+    private float[] mSlotX = new float[0];
+    private float[] mSlotScale = new float[0];
+
+    /**
+     * 重新计算所有圆点/长条的位置,缩放比例全部重置为1
+     * @param strip 是否为长条风格
+     * @param slotCount 布局的圆点/长条个数
+     * @param radius 圆点的半径
+     * @param interval 圆点/长条之间的间隔
+     * @param stripWidth 长条的长度
+     * @param stripHeight 长条的高度
+     */
+    void layout(boolean strip,int slotCount,float radius,float interval,float stripWidth,float stripHeight){
+        isStrip = strip;
+        mSlotCount = slotCount;
+        mRadius = radius;
+        mStripWidth = stripWidth;
+        if(strip){
+            mBase = interval / 2;
+            mPitch = stripWidth + interval;
+            mHalfHeight = stripHeight / 2;
+            mLeftExtent = 0;
+            mRightExtent = stripWidth;
+        }else{
+            mBase = interval / 2 + radius;
+            mPitch = radius * 2 + interval;
+            mHalfHeight = radius;
+            mLeftExtent = radius;
+            mRightExtent = radius;
+        }
+
+        if(mSlotX.length < slotCount){
+            mSlotX = new float[slotCount];
+            mSlotScale = new float[slotCount];
+        }
+        for(int i = 0;i < slotCount;i++){
+            mSlotX[i] = mBase + i * mPitch;
+            mSlotScale[i] = 1;
+        }
+    }
+
+    /**
+     * 窗口边缘的圆点/长条会缩小,提示两侧还有更多页面
+     * @param windowStart 窗口中第一个圆点/长条对应的位置
+     * @param count 圆点/长条的总数
+     */
+    void updateEdgeScales(int windowStart,int count){
+        for(int i = 0;i < mSlotCount;i++){
+            mSlotScale[i] = 1;
+        }
+        if(mSlotCount >= count){
+            return;
+        }
+
+        if(windowStart > 0){
+            applyEdgeScale(0,0.5f);
+            if(mSlotCount > 4){
+                applyEdgeScale(1,0.75f);
+            }
+        }
+        if(windowStart + mSlotCount < count){
+            applyEdgeScale(mSlotCount - 1,0.5f);
+            if(mSlotCount > 4){
+                applyEdgeScale(mSlotCount - 2,0.75f);
+            }
+        }
+    }
+
+    private void applyEdgeScale(int slot,float scale){
+        if(slot >= 0 && slot < mSlotCount){
+            mSlotScale[slot] = Math.min(mSlotScale[slot],scale);
+        }
+    }
+
+    int getSlotCount(){
+        return mSlotCount;
+    }
+
+    /**
+     * 若为圆点风格,则为圆心的X坐标;若为长条风格,则为长条起点的X坐标
+     * @param slot 在窗口中的位置,可以超出窗口,用于窗口滑动时在窗口外的位置
+     */
+    float getSlotX(int slot){
+        if(slot >= 0 && slot < mSlotCount){
+            return mSlotX[slot];
+        }
+        return mBase + slot * mPitch;
+    }
+
+    float getSlotScale(int slot){
+        return mSlotScale[slot];
+    }
+
+    /**
+     * 相邻两个圆点/长条之间的距离
+     */
+    float getPitch(){
+        return mPitch;
+    }
+
+    /**
+     * 与[left,right]相交的第一个位置,直接由坐标算出,不逐个检查
+     * @param margin 圆点/长条超出锚点范围的额外宽度,例如描边和圆头
+     * @return 没有相交的位置时返回{@link #getSlotCount()}
+     */
+    int getFirstVisibleSlot(float left,float margin){
+        if(!(mPitch > 0)){
+            return 0;
+        }
+        final double first = Math.ceil((left - margin - mRightExtent - mBase) / (double) mPitch);
+        //多包含一个位置,抵消浮点误差
+        return (int) Math.max(0,Math.min(mSlotCount,first - 1));
+    }
+
+    /**
+     * 与[left,right]相交的最后一个位置
+     * @param margin 圆点/长条超出锚点范围的额外宽度,例如描边和圆头
+     * @return 没有相交的位置时返回-1
+     */
+    int getLastVisibleSlot(float right,float margin){
+        if(!(mPitch > 0)){
+            return mSlotCount - 1;
+        }
+        final double last = Math.floor((right + margin + mLeftExtent - mBase) / (double) mPitch);
+        return (int) Math.max(-1,Math.min(mSlotCount - 1,last + 1));
+    }
+
+    /**
+     * 获取触点所在的圆点/长条
+     * @param centerY 圆点/长条中心的Y坐标
+     * @param slop 额外增加的点击范围
+     * @return 在窗口中的位置,未命中时返回-1
+     */
+    int findSlot(float x,float y,float centerY,float slop){
+        if(isStrip){
+            return SlotHitTester.find(x,y,mBase,mPitch,0,mStripWidth,centerY,mHalfHeight,slop,mSlotCount);
+        }
+        return SlotHitTester.find(x,y,mBase,mPitch,mRadius,mRadius,centerY,mHalfHeight,slop,mSlotCount);
+    }
+}
@@ -0,0 +1,181 @@
+package com.example.stickyindicator;
+
+/**
+ * 指示器的性能统计,通过{@link StickyIndicator#setMetricsEnabled(boolean)}开启
+ * 所有数值都是开启(或{@link #reset()})以来的累计值,只应在主线程读取
+ */
+public final class IndicatorMetrics {
+    /**
+     * 动画阶段:弹出、弹回、长条恢复长度、闪光
+     */
+    public static final int PHASE_POP = 0;
+    public static final int PHASE_STICK = 1;
+    public static final int PHASE_REBUILD = 2;
+    public static final int PHASE_FLASH = 3;
+
+    private static final int PHASE_COUNT = 4;
+
+    private long mStartNanos;
+
+    private long mDrawCount;
+    private long mDrawTimeNanos;
+    private long mLastDrawTimeNanos;
+    private long mMaxDrawTimeNanos;
+
+    private long mInvalidateCount;
+    private long mMeasureCount;
+    private long mTransitionCount;
+    private long mInterruptedTransitionCount;
+
+    private final long[] mPhaseCount = new long[PHASE_COUNT];
+    private final long[] mPhaseTimeMillis = new long[PHASE_COUNT];
+    private final long[] mLastPhaseMillis = new long[PHASE_COUNT];
+
+    IndicatorMetrics(){
+        reset();
+    }
+
+    /**
+     * 清空所有统计,并重新开始计时
+     */
+    public void reset(){
+        mStartNanos = System.nanoTime();
+        mDrawCount = 0;
+        mDrawTimeNanos = 0;
+        mLastDrawTimeNanos = 0;
+        mMaxDrawTimeNanos = 0;
+        mInvalidateCount = 0;
+        mMeasureCount = 0;
+        mTransitionCount = 0;
+        mInterruptedTransitionCount = 0;
+        for(int i = 0;i < PHASE_COUNT;i++){
+            mPhaseCount[i] = 0;
+            mPhaseTimeMillis[i] = 0;
+            mLastPhaseMillis[i] = 0;
+        }
+    }
+
+    void onDraw(long nanos){
+        mDrawCount++;
+        mDrawTimeNanos += nanos;
+        mLastDrawTimeNanos = nanos;
+        if(nanos > mMaxDrawTimeNanos){
+            mMaxDrawTimeNanos = nanos;
+        }
+    }
+
+    void onInvalidate(){
+        mInvalidateCount++;
+    }
+
+    void onMeasure(){
+        mMeasureCount++;
+    }
+
+    /**
+     * @param interrupted 开始时上一次过渡是否还没有结束
+     */
+    void onTransition(boolean interrupted){
+        mTransitionCount++;
+        if(interrupted){
+            mInterruptedTransitionCount++;
+        }
+    }
+
+    void onPhaseEnd(int phase,long millis){
+        mPhaseCount[phase]++;
+        mPhaseTimeMillis[phase] += millis;
+        mLastPhaseMillis[phase] = millis;
+    }
+
+    /**
+     * onDraw()的调用次数
+     */
+    public long getDrawCount(){
+        return mDrawCount;
+    }
+
+    /**
+     * 最近一次onDraw()的耗时,单位纳秒
+     */
+    public long getLastDrawTimeNanos(){
+        return mLastDrawTimeNanos;
+    }
+
+    /**
+     * onDraw()的最长耗时,单位纳秒
+     */
+    public long getMaxDrawTimeNanos(){
+        return mMaxDrawTimeNanos;
+    }
+
+    /**
+     * onDraw()的平均耗时,单位纳秒
+     */
+    public long getAverageDrawTimeNanos(){
+        return mDrawCount == 0 ? 0 : mDrawTimeNanos / mDrawCount;
+    }
+
+    /**
+     * 发起重绘的次数
+     */
+    public long getInvalidateCount(){
+        return mInvalidateCount;
+    }
+
+    /**
+     * 开启统计以来平均每秒发起重绘的次数
+     */
+    public float getInvalidationsPerSecond(){
+        final long elapsed = System.nanoTime() - mStartNanos;
+        if(elapsed <= 0){
+            return 0;
+        }
+        return mInvalidateCount * 1e9f / elapsed;
+    }
+
+    /**
+     * onMeasure()的调用次数
+     */
+    public long getMeasureCount(){
+        return mMeasureCount;
+    }
+
+    /**
+     * 开始过渡动画的次数
+     */
+    public long getTransitionCount(){
+        return mTransitionCount;
+    }
+
+    /**
+     * 上一次过渡还没有结束就开始新过渡的次数
+     */
+    public long getInterruptedTransitionCount(){
+        return mInterruptedTransitionCount;
+    }
+
+    /**
+     * 动画阶段结束(包括被打断)的次数
+     * @param phase {@link #PHASE_POP}、{@link #PHASE_STICK}、{@link #PHASE_REBUILD}或{@link #PHASE_FLASH}
+     */
+    public long getPhaseCount(int phase){
+        return mPhaseCount[phase];
+    }
+
+    /**
+     * 动画阶段的平均实际时长,单位毫秒
+     * @param phase {@link #PHASE_POP}、{@link #PHASE_STICK}、{@link #PHASE_REBUILD}或{@link #PHASE_FLASH}
+     */
+    public long getAveragePhaseMillis(int phase){
+        return mPhaseCount[phase] == 0 ? 0 : mPhaseTimeMillis[phase] / mPhaseCount[phase];
+    }
+
+    /**
+     * 动画阶段最近一次的实际时长,单位毫秒
+     * @param phase {@link #PHASE_POP}、{@link #PHASE_STICK}、{@link #PHASE_REBUILD}或{@link #PHASE_FLASH}
+     */
+    public long getLastPhaseMillis(int phase){
+        return mLastPhaseMillis[phase];
+    }
+}
@@ -0,0 +1,1191 @@
+package com.example.stickyindicator;
+
+/**
+ * 指示器的布局、绘制、点击判断和动画核心
+ * 不依赖任何Android类,通过{@link IndicatorCanvas}绘制,
+ * {@link StickyIndicator}只负责把View的测量、绘制、触摸和时钟转发到这里,
+ * 也可以在普通的JVM上直接驱动,用于测试和基准测试
+ */
+final class IndicatorRenderer {
+    /**
+     * 圆点风格,未选的圆点是实心的
+     */
+    static final int STYLE_POINT_FILL = 0;
+
+    /**
+     * 圆点风格,未选的圆点是空心的
+     */
+    static final int STYLE_POINT_STROKE = 1;
+
+    /**
+     * 长条风格
+     */
+    static final int STYLE_STRIP = 2;
+
+    /**
+     * 当前圆点/长条弹出时间
+     */
+    static final int DURATION_POINT = 300;
+
+    /**
+     * 当前圆点/长条弹回时间,
+     */
+    static final int DURATION_STICKY = 300;
+
+    /**
+     * 当前长条恢复为原来长度的时间
+     */
+    static final int DURATION_REBUILD = 300;
+
+    /**
+     * 闪光效果的时间
+     */
+    static final int DURATION_FLASH = 300;
+
+    /**
+     * 绘制粘连部分(圆点风格的粘连圆和连接轮廓,长条风格的拉伸),
+     * 关闭时只在当前位置绘制一个圆点/一段长条
+     */
+    static final int RENDER_STICKY = 1;
+
+    /**
+     * 绘制闪光圆环
+     */
+    static final int RENDER_FLASH = 1 << 1;
+
+    /**
+     * 当前圆点/长条和闪光圆环使用抗锯齿
+     */
+    static final int RENDER_ANTI_ALIAS = 1 << 2;
+
+    static final int RENDER_FULL = RENDER_STICKY | RENDER_FLASH | RENDER_ANTI_ALIAS;
+
+    private int mCount = 1;
+    private int mMaxVisibleCount;
+
+    /**
+     * 用户设置的间隔、半径和长条长度,测量不会修改它们
+     */
+    private float mConfigInterval;
+    private float mConfigRadius;
+    private float mConfigStripWidth;
+
+    /**
+     * 测量后实际使用的间隔、半径和长条长度,宽度不足时会缩小
+     */
+    private float mInterval;
+    private float mRadius;
+    private boolean allowAnim;
+    private long mPointDuration = DURATION_POINT;
+    private long mStickyDuration = DURATION_STICKY;
+    private long mRebuildDuration = DURATION_REBUILD;
+    private long mFlashDuration = DURATION_FLASH;
+    private int mStyle;
+    private float mStripWidth;
+    private float mStripHeight;
+    private boolean hideFlash;
+    private boolean hideBack;
+
+    /**
+     * 是否用元球轮廓绘制粘连部分,轮廓从共享的查找表中插值得到
+     */
+    private boolean useMetaball;
+    private final float[] mMetaball = new float[MetaballTable.STRIDE];
+
+    /**
+     * 静止和滑动时的绘制配置,以及当前使用的配置
+     * 滑动开始时立即切换到滑动配置,滑动停止后等动画结束再恢复静止配置,避免动画中途改变形状
+     */
+    private int mIdleRender = RENDER_FULL;
+    private int mScrollRender = RENDER_FULL;
+    private int mProfileRender = RENDER_FULL;
+    private boolean isScrolling;
+
+    /**
+     * 绘制质量的级别({@link QualityGovernor#LEVEL_FULL}等)允许的部分,与当前的绘制配置共同决定实际绘制的内容
+     */
+    private int mQualityLevel = QualityGovernor.LEVEL_FULL;
+    private int mQualityRender = RENDER_FULL;
+    private int mRender = RENDER_FULL;
+
+    private int mCurrentIndex;
+    private int mLastIndex;
+
+    /**
+     * 窗口模式下,窗口中第一个圆点/长条对应的位置
+     */
+    private int mWindowStart;
+
+    private int mMeasuredWidth;
+    private int mMeasuredHeight;
+    private int mHeight;
+
+    /**
+     * 配置或当前位置变化后,下一次测量需要重新放置当前圆点/长条
+     */
+    private boolean isLayoutDirty = true;
+
+    /**
+     * 测量结果的缓存,以MeasureSpec为键。父布局经常对同一个View连续测量两次,
+     * 配置不变时重复的测量直接取缓存,不会产生任何副作用。配置变化时清空
+     */
+    private static final int MEASURE_CACHE_SIZE = 2;
+    private final boolean[] mCacheWrapWidth = new boolean[MEASURE_CACHE_SIZE];
+    private final int[] mCacheWidth = new int[MEASURE_CACHE_SIZE];
+    private final boolean[] mCacheWrapHeight = new boolean[MEASURE_CACHE_SIZE];
+    private final int[] mCacheHeight = new int[MEASURE_CACHE_SIZE];
+    private final float[] mCacheRadius = new float[MEASURE_CACHE_SIZE];
+    private final float[] mCacheInterval = new float[MEASURE_CACHE_SIZE];
+    private final float[] mCacheStripWidth = new float[MEASURE_CACHE_SIZE];
+    private final int[] mCacheMeasuredWidth = new int[MEASURE_CACHE_SIZE];
+    private final int[] mCacheMeasuredHeight = new int[MEASURE_CACHE_SIZE];
+    private int mCacheSize;
+    private int mCacheNext;
+
+    private float mPointX;
+    private float mPointY;
+    private float mStickyX;
+    private float mStickyY;
+
+    private float mFlashRadius;
+    private float mFlashStrokeWidth;
+
+    /**
+     * 弹性动画的时间线,弹出、弹回、恢复长度和闪光四个阶段都由它计算
+     * 第一次播放动画时才创建,不播放动画的指示器不持有它;离开窗口时释放,之后需要时再重新创建
+     */
+    private StickyAnimState mAnimState;
+    private boolean isSpringMode;
+    private IndicatorMetrics mMetrics;
+
+    /**
+     * 所有圆点/长条的位置和缩放比例,配置、测量结果或窗口变化后在下一次使用前重新计算
+     */
+    private final IndicatorGeometry mGeometry = new IndicatorGeometry();
+    private boolean isGeometryDirty = true;
+
+    /**
+     * 未选圆点/长条的批量绘制数据,在几何模型或高度变化后重新生成,每一帧复用
+     * 实心圆点为圆心坐标;空心圆点为圆心和半径;长条为线段的起点和终点
+     */
+    private float[] mTrack = new float[0];
+    private int mTrackStride;
+    private boolean isTrackDirty = true;
+    private int mTrackHeight;
+
+    /**
+     * 保存着空心圆点合并路径的绘制目标,路径覆盖全部圆点,只在批量绘制数据重新生成后重新构建,
+     * 不可见的部分由Canvas的裁剪区域跳过
+     */
+    private IndicatorCanvas mCirclePathCanvas;
+
+    /**
+     * 实心圆点按缩放比例分段,每段只需要一次绘制
+     * 只有窗口边缘会缩小,最多分为5段
+     */
+    private final int[] mTrackRunStart = new int[5];
+    private final float[] mTrackRunScale = new float[5];
+    private int mTrackRunCount;
+
+    /**
+     * 本次绘制的裁剪区域,区域外的圆点/长条、闪光圆环和当前圆点/长条都不绘制
+     */
+    private float mClipLeft;
+    private float mClipTop;
+    private float mClipRight;
+    private float mClipBottom;
+
+    void setCount(int count){
+        mCount = count;
+        onConfigChanged();
+    }
+
+    int getCount(){
+        return mCount;
+    }
+
+    void setMaxVisibleCount(int maxVisibleCount){
+        mMaxVisibleCount = maxVisibleCount;
+        onConfigChanged();
+    }
+
+    void setInterval(float interval){
+        mConfigInterval = interval;
+        mInterval = interval;
+        onConfigChanged();
+    }
+
+    void setRadius(float radius){
+        mConfigRadius = radius;
+        mRadius = radius;
+        onConfigChanged();
+    }
+
+    float getRadius(){
+        return mRadius;
+    }
+
+    void setStyle(int style){
+        mStyle = style;
+        onConfigChanged();
+    }
+
+    int getStyle(){
+        return mStyle;
+    }
+
+    void setStripWidth(float stripWidth){
+        mConfigStripWidth = stripWidth;
+        mStripWidth = stripWidth;
+        onConfigChanged();
+    }
+
+    void setStripHeight(float stripHeight){
+        mStripHeight = stripHeight;
+        onConfigChanged();
+    }
+
+    float getStripHeight(){
+        return mStripHeight;
+    }
+
+    void hideBack(boolean hide){
+        hideBack = hide;
+    }
+
+    boolean isBackHidden(){
+        return hideBack;
+    }
+
+    void hideFlash(boolean hide){
+        hideFlash = hide;
+    }
+
+    void setCurrentIndex(int index){
+        mCurrentIndex = index;
+        isLayoutDirty = true;
+    }
+
+    int getCurrentIndex(){
+        return mCurrentIndex;
+    }
+
+    /**
+     * 是否播放弹性动画
+     * @param allow
+     */
+    void allowAnim(boolean allow){
+        allowAnim = allow;
+        if(mAnimState == null){
+            return;
+        }
+        if(allow){
+            mAnimState.setDurations(mPointDuration,mStickyDuration,mRebuildDuration,mFlashDuration);
+        }else{
+            mAnimState.setDurations(0,0,0,0);
+        }
+    }
+
+    /**
+     * 设置各动画阶段的时长,只在允许播放动画时生效
+     */
+    void setDurations(long point,long sticky,long rebuild,long flash){
+        mPointDuration = point;
+        mStickyDuration = sticky;
+        mRebuildDuration = rebuild;
+        mFlashDuration = flash;
+        allowAnim(allowAnim);
+    }
+
+    boolean isAnimAllowed(){
+        return allowAnim;
+    }
+
+    void setMetrics(IndicatorMetrics metrics){
+        mMetrics = metrics;
+        if(mAnimState != null){
+            mAnimState.setMetrics(metrics);
+        }
+    }
+
+    /**
+     * 动画是否还在进行
+     */
+    boolean isAnimRunning(){
+        return mAnimState != null && mAnimState.isRunning();
+    }
+
+    void setSpringMode(boolean spring){
+        isSpringMode = spring;
+        if(mAnimState != null){
+            mAnimState.setSpringMode(spring);
+        }
+    }
+
+    /**
+     * 获取动画状态,不存在时按当前的配置创建
+     */
+    private StickyAnimState animState(){
+        if(mAnimState == null){
+            mAnimState = new StickyAnimState();
+            mAnimState.setMetrics(mMetrics);
+            mAnimState.setSpringMode(isSpringMode);
+            allowAnim(allowAnim);
+        }
+        return mAnimState;
+    }
+
+    boolean hasAnimState(){
+        return mAnimState != null;
+    }
+
+    /**
+     * 释放动画状态,正在进行的动画直接跳到结束位置
+     */
+    void releaseAnimState(){
+        if(mAnimState == null){
+            return;
+        }
+        if(mAnimState.isRunning()){
+            resetMotion();
+        }
+        mAnimState = null;
+    }
+
+    /**
+     * 停止动画和滑动中的位置,直接放到当前圆点/长条上
+     */
+    void snapToCurrent(){
+        resetMotion();
+    }
+
+    /**
+     * @param idle 静止时的绘制配置,{@link #RENDER_STICKY}等的组合
+     * @param scroll 滑动时的绘制配置
+     */
+    void setRenderProfiles(int idle,int scroll){
+        mIdleRender = idle;
+        mScrollRender = scroll;
+        mProfileRender = isScrolling ? scroll : idle;
+        mRender = mProfileRender & mQualityRender;
+    }
+
+    int getIdleRender(){
+        return mIdleRender;
+    }
+
+    int getScrollRender(){
+        return mScrollRender;
+    }
+
+    /**
+     * 切换滑动状态
+     * @return 当前使用的绘制配置是否变化
+     */
+    boolean setScrolling(boolean scrolling){
+        isScrolling = scrolling;
+        return updateRender();
+    }
+
+    /**
+     * 滑动时使用滑动配置,静止且没有动画时使用静止配置
+     * @return 当前使用的绘制配置是否变化
+     */
+    private boolean updateRender(){
+        final int render;
+        if(isScrolling){
+            render = mScrollRender;
+        }else if(!isAnimRunning()){
+            render = mIdleRender;
+        }else{
+            return false;
+        }
+        if(render == mProfileRender){
+            return false;
+        }
+        mProfileRender = render;
+        mRender = render & mQualityRender;
+        return true;
+    }
+
+    /**
+     * 设置绘制质量的级别,级别越高去掉的效果越多
+     * @param level {@link QualityGovernor#LEVEL_FULL}到{@link QualityGovernor#LEVEL_NO_ANTI_ALIAS}
+     */
+    void setQualityLevel(int level){
+        mQualityLevel = level;
+        int render = RENDER_FULL;
+        if(level >= QualityGovernor.LEVEL_NO_FLASH){
+            render &= ~RENDER_FLASH;
+        }
+        if(level >= QualityGovernor.LEVEL_NO_ANTI_ALIAS){
+            render &= ~RENDER_ANTI_ALIAS;
+        }
+        mQualityRender = render;
+        mRender = mProfileRender & render;
+    }
+
+    int getQualityLevel(){
+        return mQualityLevel;
+    }
+
+    /**
+     * 对当前外观有作用的绘制质量级别,静止和滑动的绘制配置中任意一个用到的效果都算在内
+     * @return 第n位对应级别n
+     */
+    int getEffectiveQualityLevels(){
+        final int render = mIdleRender | mScrollRender;
+        int levels = 1 << QualityGovernor.LEVEL_FULL;
+        if(useMetaball && mStyle != STYLE_STRIP && (render & RENDER_STICKY) != 0){
+            levels |= 1 << QualityGovernor.LEVEL_NO_METABALL;
+        }
+        if(!hideFlash && (render & RENDER_FLASH) != 0){
+            levels |= 1 << QualityGovernor.LEVEL_NO_FLASH;
+        }
+        if((render & RENDER_ANTI_ALIAS) != 0){
+            levels |= 1 << QualityGovernor.LEVEL_NO_ANTI_ALIAS;
+        }
+        return levels;
+    }
+
+    /**
+     * 当前圆点/长条和闪光圆环是否使用抗锯齿
+     */
+    boolean isMotionAntiAlias(){
+        return (mRender & RENDER_ANTI_ALIAS) != 0;
+    }
+
+    void useMetaball(boolean use){
+        useMetaball = use;
+    }
+
+    boolean isMetaballUsed(){
+        return useMetaball;
+    }
+
+    /**
+     * 影响测量结果的配置发生了变化,清空测量缓存
+     */
+    private void onConfigChanged(){
+        mCacheSize = 0;
+        isLayoutDirty = true;
+        isGeometryDirty = true;
+    }
+
+    /**
+     * 获取最新的几何模型
+     */
+    private IndicatorGeometry geometry(){
+        if(isGeometryDirty){
+            isGeometryDirty = false;
+            mGeometry.layout(mStyle == STYLE_STRIP,getVisibleCount(),mRadius,mInterval,mStripWidth,mStripHeight);
+            mGeometry.updateEdgeScales(mWindowStart,mCount);
+            isTrackDirty = true;
+        }
+        return mGeometry;
+    }
+
+    /**
+     * 测量并布局,可能会缩小半径/长条长度以适应给定的宽度
+     * 配置的值不会被修改,相同的MeasureSpec重复测量时不会重新放置当前圆点/长条,
+     * 也不会打断正在进行的动画
+     * @param wrapWidth 宽度是否为AT_MOST,此时根据内容计算宽度
+     * @param width 给定的宽度
+     * @param wrapHeight 高度是否为AT_MOST
+     * @param height 给定的高度
+     * @return 实际使用的几何参数是否发生了变化,此时需要重新设置画笔和重绘未选的圆点/长条
+     */
+    boolean measure(boolean wrapWidth,int width,boolean wrapHeight,int height){
+        final boolean windowMoved = updateWindow();
+
+        int entry = findCache(wrapWidth,width,wrapHeight,height);
+        if(entry < 0){
+            entry = resolve(wrapWidth,width,wrapHeight,height);
+        }
+
+        final float radius = mCacheRadius[entry];
+        final float interval = mCacheInterval[entry];
+        final float stripWidth = mCacheStripWidth[entry];
+        final int measuredHeight = mCacheMeasuredHeight[entry];
+        mMeasuredWidth = mCacheMeasuredWidth[entry];
+
+        final boolean changed = isLayoutDirty || windowMoved || radius != mRadius || interval != mInterval ||
+                stripWidth != mStripWidth || measuredHeight != mMeasuredHeight;
+        if(!changed){
+            return false;
+        }
+
+        mRadius = radius;
+        mInterval = interval;
+        mStripWidth = stripWidth;
+        mMeasuredHeight = measuredHeight;
+        isLayoutDirty = false;
+        isGeometryDirty = true;
+
+        //几何参数变化后,正在进行的动画的起止位置都已失效,直接放到当前位置
+        mPointY = measuredHeight / 2;
+        mStickyY = measuredHeight / 2;
+        resetMotion();
+        return true;
+    }
+
+    private int findCache(boolean wrapWidth,int width,boolean wrapHeight,int height){
+        for(int i = 0;i < mCacheSize;i++){
+            if(mCacheWrapWidth[i] == wrapWidth && mCacheWidth[i] == width &&
+                    mCacheWrapHeight[i] == wrapHeight && mCacheHeight[i] == height){
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * 根据配置的值计算测量结果,写入缓存
+     * @return 缓存的位置
+     */
+    private int resolve(boolean wrapWidth,int width,boolean wrapHeight,int height){
+        final int visibleCount = getVisibleCount();
+        //没有圆点/长条时避免除以0
+        final int divisor = Math.max(visibleCount,1);
+        float radius = mConfigRadius;
+        float interval = mConfigInterval;
+        float stripWidth = mConfigStripWidth;
+
+        int measuredWidth = width;
+        final float minHeight;
+        if(mStyle == STYLE_STRIP){
+            if(wrapWidth){
+                measuredWidth = getIntrinsicWidth();
+            }else{
+                if(stripWidth > width / divisor){
+                    stripWidth = width / divisor;
+                }
+                interval = width / divisor - stripWidth;
+            }
+            minHeight = mStripHeight * 1.5f;
+        }else{
+            if(wrapWidth){
+                measuredWidth = getIntrinsicWidth();
+            }else{
+                if(radius * 2 * visibleCount > width){
+                    radius = width / divisor / 2;
+                }
+                interval = width / divisor - radius * 2;
+            }
+            minHeight = radius * 2 * 1.5f;
+        }
+
+        int measuredHeight = height;
+        if(wrapHeight || height < minHeight){
+            measuredHeight = (int) minHeight;
+        }
+
+        final int entry = mCacheNext;
+        mCacheNext = (mCacheNext + 1) % MEASURE_CACHE_SIZE;
+        mCacheSize = Math.max(mCacheSize,entry + 1);
+
+        mCacheWrapWidth[entry] = wrapWidth;
+        mCacheWidth[entry] = width;
+        mCacheWrapHeight[entry] = wrapHeight;
+        mCacheHeight[entry] = height;
+        mCacheRadius[entry] = radius;
+        mCacheInterval[entry] = interval;
+        mCacheStripWidth[entry] = stripWidth;
+        mCacheMeasuredWidth[entry] = measuredWidth;
+        mCacheMeasuredHeight[entry] = measuredHeight;
+        return entry;
+    }
+
+    /**
+     * 按配置的尺寸自适应时的宽度,不修改测量结果
+     */
+    int getIntrinsicWidth(){
+        if(mStyle == STYLE_STRIP){
+            return (int) ((mConfigStripWidth + mConfigInterval) * getVisibleCount());
+        }
+        return (int) (getVisibleCount() * (mConfigRadius * 2 + mConfigInterval));
+    }
+
+    /**
+     * 按配置的尺寸自适应时的高度,不修改测量结果
+     */
+    int getIntrinsicHeight(){
+        if(mStyle == STYLE_STRIP){
+            return (int) (mStripHeight * 1.5f);
+        }
+        return (int) (mConfigRadius * 2 * 1.5f);
+    }
+
+    int getMeasuredWidth(){
+        return mMeasuredWidth;
+    }
+
+    int getMeasuredHeight(){
+        return mMeasuredHeight;
+    }
+
+    /**
+     * 若为圆点风格,则为当前圆点圆心的X坐标
+     * 若为长条风格,则为当前长条一端的X坐标
+     */
+    float getPointX(){
+        return mPointX;
+    }
+
+    /**
+     * 布局后的实际高度
+     * @param height
+     */
+    void setHeight(int height){
+        mHeight = height;
+    }
+
+    /**
+     * 绘制一帧
+     * @param canvas
+     * @param drawBack 是否绘制未选的圆点/长条,使用缓存图层时由调用者绘制
+     */
+    void draw(IndicatorCanvas canvas,boolean drawBack){
+        draw(canvas,drawBack,Float.NEGATIVE_INFINITY,Float.NEGATIVE_INFINITY,
+                Float.POSITIVE_INFINITY,Float.POSITIVE_INFINITY);
+    }
+
+    /**
+     * 只绘制与裁剪区域相交的部分,指示器只有一部分可见时,绘制开销与可见部分成正比
+     * @param canvas
+     * @param drawBack 是否绘制未选的圆点/长条,使用缓存图层时由调用者绘制
+     */
+    void draw(IndicatorCanvas canvas,boolean drawBack,float clipLeft,float clipTop,float clipRight,float clipBottom){
+        mClipLeft = clipLeft;
+        mClipTop = clipTop;
+        mClipRight = clipRight;
+        mClipBottom = clipBottom;
+
+        if(drawBack && !hideBack){
+            drawTrack(canvas);
+        }
+
+        if(isFlashDrawn()){
+            drawFlash(canvas);
+        }
+
+        if(mStyle == STYLE_STRIP){
+            drawStrip(canvas);
+        }else{
+            drawPoint(canvas);
+        }
+    }
+
+    /**
+     * 绘制全部未选的圆点/长条
+     * @param canvas
+     */
+    void drawBack(IndicatorCanvas canvas){
+        mClipLeft = Float.NEGATIVE_INFINITY;
+        mClipTop = Float.NEGATIVE_INFINITY;
+        mClipRight = Float.POSITIVE_INFINITY;
+        mClipBottom = Float.POSITIVE_INFINITY;
+        drawTrack(canvas);
+    }
+
+    private void drawTrack(IndicatorCanvas canvas){
+        final IndicatorGeometry geometry = geometry();
+        updateTrack(canvas);
+
+        final float margin = getTrackMargin();
+        final float y = mHeight / 2;
+        final float halfHeight = mStyle == STYLE_STRIP ? mStripHeight / 2 : mRadius;
+        if(!intersectsClip(Float.NEGATIVE_INFINITY,y - halfHeight - margin,Float.POSITIVE_INFINITY,y + halfHeight + margin)){
+            return;
+        }
+
+        final int first = geometry.getFirstVisibleSlot(mClipLeft,margin);
+        final int last = geometry.getLastVisibleSlot(mClipRight,margin);
+        if(first > last){
+            return;
+        }
+
+        final int stride = mTrackStride;
+        if(mStyle == STYLE_STRIP){
+            canvas.drawLines(mTrack,first * stride,(last - first + 1) * stride,IndicatorCanvas.PAINT_BACK);
+        }else if(mStyle == STYLE_POINT_STROKE){
+            canvas.drawCirclePath(IndicatorCanvas.PAINT_BACK);
+        }else{
+            //每种缩放比例的一段圆点只需要一次绘制
+            for(int i = 0;i < mTrackRunCount;i++){
+                final int runStart = Math.max(first,mTrackRunStart[i]);
+                final int runEnd = Math.min(last + 1,i + 1 < mTrackRunCount ? mTrackRunStart[i + 1] : geometry.getSlotCount());
+                if(runEnd > runStart){
+                    canvas.drawPoints(mTrack,runStart * stride,(runEnd - runStart) * stride,
+                            mRadius * 2 * mTrackRunScale[i],IndicatorCanvas.PAINT_BACK);
+                }
+            }
+        }
+    }
+
+    /**
+     * 圆点/长条超出几何范围的宽度:空心圆点的描边、长条的圆头,以及抗锯齿的边缘
+     */
+    private float getTrackMargin(){
+        if(mStyle == STYLE_STRIP){
+            return mStripHeight / 2 + 1;
+        }else if(mStyle == STYLE_POINT_STROKE){
+            return mRadius * 0.15f + 1;
+        }
+        return 1;
+    }
+
+    private boolean intersectsClip(float left,float top,float right,float bottom){
+        return left <= mClipRight && right >= mClipLeft && top <= mClipBottom && bottom >= mClipTop;
+    }
+
+    /**
+     * 按当前的几何模型和高度重新生成未选圆点/长条的批量绘制数据,空心圆点同时重新构建合并路径
+     * @param canvas 本次绘制的目标,与保存路径的目标不同时也需要构建路径
+     */
+    private void updateTrack(IndicatorCanvas canvas){
+        final IndicatorGeometry geometry = geometry();
+        if(!isTrackDirty && mTrackHeight == mHeight){
+            if(mStyle == STYLE_POINT_STROKE && mCirclePathCanvas != canvas){
+                buildCirclePath(canvas);
+            }
+            return;
+        }
+        isTrackDirty = false;
+        mTrackHeight = mHeight;
+
+        final int y = mHeight / 2;
+        final int slotCount = geometry.getSlotCount();
+        final int stride = mStyle == STYLE_STRIP ? 4 : (mStyle == STYLE_POINT_STROKE ? 3 : 2);
+        mTrackStride = stride;
+        if(mTrack.length < slotCount * stride){
+            mTrack = new float[slotCount * stride];
+        }
+
+        final float[] track = mTrack;
+        int length = 0;
+        if(mStyle == STYLE_STRIP){
+            float x;
+            float inset;
+            for(int i = 0;i < slotCount;i++){
+                x = geometry.getSlotX(i);
+                //边缘的长条以中心为基准缩短
+                inset = mStripWidth * (1 - geometry.getSlotScale(i)) / 2;
+                track[length++] = x + inset;
+                track[length++] = y;
+                track[length++] = x + mStripWidth - inset;
+                track[length++] = y;
+            }
+        }else if(mStyle == STYLE_POINT_STROKE){
+            for(int i = 0;i < slotCount;i++){
+                track[length++] = geometry.getSlotX(i);
+                track[length++] = y;
+                track[length++] = mRadius * geometry.getSlotScale(i);
+            }
+            buildCirclePath(canvas);
+        }else{
+            int runCount = 0;
+            float scale;
+            for(int i = 0;i < slotCount;i++){
+                track[length++] = geometry.getSlotX(i);
+                track[length++] = y;
+
+                scale = geometry.getSlotScale(i);
+                if(runCount == 0 || mTrackRunScale[runCount - 1] != scale){
+                    mTrackRunStart[runCount] = i;
+                    mTrackRunScale[runCount] = scale;
+                    runCount++;
+                }
+            }
+            mTrackRunCount = runCount;
+        }
+    }
+
+    private void buildCirclePath(IndicatorCanvas canvas){
+        canvas.buildCirclePath(mTrack,0,geometry().getSlotCount() * mTrackStride);
+        mCirclePathCanvas = canvas;
+    }
+
+    private boolean isFlashDrawn(){
+        return !hideFlash && mFlashRadius > 0 && (mRender & RENDER_FLASH) != 0;
+    }
+
+    private void drawFlash(IndicatorCanvas canvas){
+        float flashX = getLastPointX();
+        if(mStyle == STYLE_STRIP){
+            flashX += mStripWidth;
+        }
+        final float flashY = mHeight / 2;
+        final float extent = mFlashRadius + Math.abs(mFlashStrokeWidth) / 2 + 1;
+        if(!intersectsClip(flashX - extent,flashY - extent,flashX + extent,flashY + extent)){
+            return;
+        }
+        canvas.drawRing(flashX,flashY,mFlashRadius,mFlashStrokeWidth);
+    }
+
+    /**
+     * 不绘制粘连部分时当前圆点/长条的位置
+     * 动画中弹出的一端会越过目标位置(长条越过半个长度),限制在起点和目标位置之间,切换绘制配置时不会先越过再退回
+     */
+    private float getSimplePointX(){
+        if(!isAnimRunning()){
+            return mPointX;
+        }
+        final float from = getLastPointX();
+        final float to = getCurrentPointX();
+        return Math.max(Math.min(from,to),Math.min(Math.max(from,to),mPointX));
+    }
+
+    /**
+     * 当前圆点/长条(包括粘连部分)是否与裁剪区域相交
+     */
+    private boolean isMotionVisible(float extent){
+        return intersectsClip(Math.min(mPointX,mStickyX) - extent,mPointY - extent,
+                Math.max(mPointX,mStickyX) + extent,mPointY + extent);
+    }
+
+    private void drawPoint(IndicatorCanvas canvas){
+        if((mRender & RENDER_STICKY) == 0){
+            //只绘制当前位置的圆点
+            final float x = getSimplePointX();
+            if(intersectsClip(x - mRadius - 1,mPointY - mRadius - 1,x + mRadius + 1,mPointY + mRadius + 1)){
+                canvas.drawCircle(x,mPointY,mRadius,IndicatorCanvas.PAINT_FORE);
+            }
+            return;
+        }
+        if(!isMotionVisible(mRadius + 1)){
+            return;
+        }
+
+        canvas.drawCircle(mPointX,mPointY,mRadius,IndicatorCanvas.PAINT_FORE);
+        canvas.drawCircle(mStickyX,mStickyY,mRadius,IndicatorCanvas.PAINT_FORE);
+
+        if(useMetaball && mQualityLevel < QualityGovernor.LEVEL_NO_METABALL){
+            drawMetaball(canvas);
+            return;
+        }
+
+        canvas.pathReset();
+        canvas.pathMoveTo(mStickyX,mStickyY - mRadius);
+        canvas.pathQuadTo(mStickyX + (mPointX - mStickyX) / 2,
+                mStickyY,
+                mPointX,
+                mPointY - mRadius);
+        canvas.pathLineTo(mPointX,mStickyY + mRadius);
+        canvas.pathQuadTo(mStickyX + (mPointX - mStickyX) / 2,
+                mStickyY,
+                mStickyX,
+                mStickyY + mRadius);
+        canvas.pathLineTo(mStickyX,mStickyY - mRadius);
+        canvas.drawPath(IndicatorCanvas.PAINT_FORE);
+    }
+
+    /**
+     * 用查找表中的元球轮廓连接粘连圆和当前圆点,两圆分离后不再连接
+     */
+    private void drawMetaball(IndicatorCanvas canvas){
+        final float radius = mRadius;
+        final float distance = mPointX - mStickyX;
+        if(!(radius > 0) || !MetaballTable.getInstance().lookup(Math.abs(distance) / radius,mMetaball)){
+            return;
+        }
+
+        final float[] m = mMetaball;
+        final float x = mStickyX;
+        final float y = mStickyY;
+        final float scaleX = distance < 0 ? -radius : radius;
+        canvas.pathReset();
+        canvas.pathMoveTo(x + m[0] * scaleX,y - m[1] * radius);
+        canvas.pathCubicTo(x + m[2] * scaleX,y - m[3] * radius,
+                x + m[4] * scaleX,y - m[5] * radius,
+                x + m[6] * scaleX,y - m[7] * radius);
+        canvas.pathLineTo(x + m[6] * scaleX,y + m[7] * radius);
+        canvas.pathCubicTo(x + m[4] * scaleX,y + m[5] * radius,
+                x + m[2] * scaleX,y + m[3] * radius,
+                x + m[0] * scaleX,y + m[1] * radius);
+        canvas.pathLineTo(x + m[0] * scaleX,y - m[1] * radius);
+        canvas.drawPath(IndicatorCanvas.PAINT_FORE);
+    }
+
+    private void drawStrip(IndicatorCanvas canvas){
+        if((mRender & RENDER_STICKY) == 0){
+            //不拉伸,从当前位置绘制原长的长条
+            final float x = getSimplePointX();
+            final float extent = mStripHeight / 2 + 1;
+            if(intersectsClip(x - extent,mPointY - extent,x + mStripWidth + extent,mPointY + extent)){
+                canvas.drawLine(x,mPointY,x + mStripWidth,mStickyY,IndicatorCanvas.PAINT_FORE);
+            }
+            return;
+        }
+        if(!isMotionVisible(mStripHeight / 2 + 1)){
+            return;
+        }
+
+        canvas.drawLine(mPointX,mPointY,mStickyX,mStickyY,IndicatorCanvas.PAINT_FORE);
+    }
+
+    /**
+     * 计算当前圆点/长条(包括粘连部分)和闪光圆环所占的区域
+     * @param outBounds 依次写入left,top,right,bottom
+     */
+    void computeMotionBounds(float[] outBounds){
+        final float extent;
+        if(mStyle == STYLE_STRIP){
+            //长条两端是圆头,会超出端点半个长条高度
+            extent = mStripHeight / 2;
+        }else{
+            extent = mRadius;
+        }
+
+        float left;
+        float right;
+        if((mRender & RENDER_STICKY) != 0){
+            left = Math.min(mPointX,mStickyX) - extent;
+            right = Math.max(mPointX,mStickyX) + extent;
+        }else{
+            final float x = getSimplePointX();
+            left = x - extent;
+            right = (mStyle == STYLE_STRIP ? x + mStripWidth : x) + extent;
+        }
+        float top = mPointY - extent;
+        float bottom = mPointY + extent;
+
+        if(isFlashDrawn()){
+            float flashX = getLastPointX();
+            if(mStyle == STYLE_STRIP){
+                flashX += mStripWidth;
+            }
+            final float flashY = mHeight / 2;
+            final float flashExtent = mFlashRadius + Math.abs(mFlashStrokeWidth) / 2;
+            left = Math.min(left,flashX - flashExtent);
+            right = Math.max(right,flashX + flashExtent);
+            top = Math.min(top,flashY - flashExtent);
+            bottom = Math.max(bottom,flashY + flashExtent);
+        }
+
+        outBounds[0] = left;
+        outBounds[1] = top;
+        outBounds[2] = right;
+        outBounds[3] = bottom;
+    }
+
+    /**
+     * 获取触点所在的圆点/长条
+     * @param x
+     * @param y
+     * @param slop 额外增加的点击范围
+     * @return 圆点/长条的位置,未命中时返回-1
+     */
+    int pointerOnPosition(float x,float y,float slop){
+        final int slot = geometry().findSlot(x,y,mHeight / 2,slop);
+        if(slot == -1){
+            return -1;
+        }
+        return mWindowStart + slot;
+    }
+
+    /**
+     * 切换到新的位置,需要随后调用{@link #startTransition(long)}播放动画
+     * @param newPosition 已经限制在有效范围内的位置
+     * @return 窗口是否发生了移动,此时需要整体重绘
+     */
+    boolean setPosition(int newPosition){
+        mLastIndex = mCurrentIndex;
+        mCurrentIndex = newPosition;
+
+        final int lastWindowStart = mWindowStart;
+        if(updateWindow()){
+            //窗口滑动时,当前圆点/长条跟随原来的位置一起平移,再从那里弹到新位置
+            float shift = (lastWindowStart - mWindowStart) * getSlotPitch();
+            mPointX += shift;
+            mStickyX += shift;
+            if(mAnimState != null){
+                mAnimState.offset(shift);
+            }
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * 不播放动画,直接跳到指定位置
+     * @param position 已经限制在有效范围内的位置
+     */
+    void jumpTo(int position){
+        mLastIndex = position;
+        mCurrentIndex = position;
+        updateWindow();
+        resetMotion();
+    }
+
+    /**
+     * 停止动画,把当前圆点/长条放到当前位置
+     */
+    private void resetMotion(){
+        mPointX = getCurrentPointX();
+        mStickyX = mStyle == STYLE_STRIP ? mPointX + mStripWidth : mPointX;
+        mFlashRadius = 0;
+        mFlashStrokeWidth = 0;
+        if(mAnimState != null){
+            mAnimState.cancel();
+            mAnimState.pointX = mPointX;
+            mAnimState.stickyX = mStickyX;
+        }
+        updateRender();
+    }
+
+    /**
+     * 跟随滑动设置圆点/长条的中间位置
+     * @param position 左侧的页面位置
+     * @param offset 向右侧页面滑过的比例,范围为[0,1)
+     * @return 位置是否发生了变化
+     */
+    boolean setPositionOffset(int position,float offset){
+        if(!allowAnim || (mAnimState != null && mAnimState.isSticking())){
+            return false;
+        }
+
+        if(position < 0 || position >= mCount){
+            return false;
+        }
+
+        mPointX = getPostionX(position) + offset * getSlotPitch();
+        return true;
+    }
+
+    /**
+     * 计算跟随滑动到新位置后的运动区域,不修改当前位置
+     * @param outBounds 依次写入left,top,right,bottom
+     * @return 是否会跟随滑动,返回false时不写入
+     * @see #setPositionOffset(int, float)
+     */
+    boolean computeOffsetBounds(int position,float offset,float[] outBounds){
+        final float pointX = mPointX;
+        if(!setPositionOffset(position,offset)){
+            return false;
+        }
+        computeMotionBounds(outBounds);
+        mPointX = pointX;
+        return true;
+    }
+
+    /**
+     * 从当前位置开始播放到当前圆点/长条的过渡
+     * @param now 当前帧的时间
+     * @return 动画是否还在进行,需要继续驱动{@link #tick(long)}
+     */
+    boolean startTransition(long now){
+        if(!allowAnim){
+            //不播放动画时直接放到当前位置,不需要创建动画状态
+            resetMotion();
+            return false;
+        }
+
+        final StickyAnimState animState = animState();
+        animState.pointX = mPointX;
+        animState.stickyX = mStickyX;
+
+        float flashTo;
+        if(mStyle == STYLE_STRIP)
+            flashTo = mStripHeight;
+        else
+            flashTo = mRadius * 2;
+
+        animState.start(now,getCurrentPointX(),mStyle == STYLE_STRIP,mStripWidth,flashTo);
+        return tick(now);
+    }
+
+    /**
+     * 推进一帧动画
+     * @param now 当前帧的时间
+     * @return 动画是否还在进行
+     */
+    boolean tick(long now){
+        if(mAnimState == null){
+            return false;
+        }
+        final boolean running = mAnimState.tick(now);
+        mPointX = mAnimState.pointX;
+        mStickyX = mAnimState.stickyX;
+        mFlashRadius = mAnimState.flashRadius;
+        mFlashStrokeWidth = mAnimState.flashStrokeWidth;
+        if(!running){
+            updateRender();
+        }
+        return running;
+    }
+
+    /**
+     * 若为圆点风格,则获取当前圆点圆心的X坐标
+     * 若为长条风格,在获取当前长条的起始X坐标
+     * @return
+     */
+    private float getCurrentPointX(){
+        return getPostionX(mCurrentIndex);
+    }
+
+    /**
+     * 若为圆点风格,则获取指定位置圆点圆心的X坐标
+     * 若为长条风格,在获取指定位置长条的起始X坐标
+     * @param index
+     * @return
+     */
+    float getPostionX(int index){
+        if(index > mCount - 1 || index < 0)
+            return -1;
+
+        //窗口模式下只布局窗口中的圆点/长条,位置相对于窗口计算
+        return geometry().getSlotX(index - mWindowStart);
+    }
+
+    /**
+     * 获取实际布局和绘制的圆点/长条个数
+     * 未开启窗口模式或个数不超过窗口大小时为全部个数,否则为窗口大小
+     * @return
+     */
+    int getVisibleCount(){
+        if(mMaxVisibleCount > 0 && mCount > mMaxVisibleCount){
+            return mMaxVisibleCount;
+        }
+        return mCount;
+    }
+
+    /**
+     * 根据当前位置移动窗口,使当前圆点/长条始终在窗口内,且不处于缩小的边缘
+     * @return 窗口是否发生了移动
+     */
+    private boolean updateWindow(){
+        final int visibleCount = getVisibleCount();
+        int start = mWindowStart;
+        if(visibleCount >= mCount){
+            start = 0;
+        }else{
+            final int margin = visibleCount > 2 ? 1 : 0;
+            if(mCurrentIndex < start + margin){
+                start = mCurrentIndex - margin;
+            }else if(mCurrentIndex > start + visibleCount - 1 - margin){
+                start = mCurrentIndex - visibleCount + 1 + margin;
+            }
+            start = Math.max(0,Math.min(start,mCount - visibleCount));
+        }
+
+        final boolean moved = start != mWindowStart;
+        mWindowStart = start;
+        if(moved){
+            isGeometryDirty = true;
+        }
+        return moved;
+    }
+
+    /**
+     * 相邻两个圆点/长条之间的距离
+     * @return
+     */
+    private float getSlotPitch(){
+        return geometry().getPitch();
+    }
+
+    private float getLastPointX(){
+        return getPostionX(mLastIndex);
+    }
+}
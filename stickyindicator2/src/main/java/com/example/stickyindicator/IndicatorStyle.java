@@ -0,0 +1,282 @@
+package com.example.stickyindicator;
+
+import android.content.Context;
+import android.graphics.Color;
+
+/**
+ * 不可变的指示器外观配置,可以被任意多个{@link StickyIndicator}共享
+ * 在列表中大量创建指示器时,只需构建一次,通过{@link StickyIndicator#StickyIndicator(Context, IndicatorStyle)}
+ * 或{@link StickyIndicator#setIndicatorStyle(IndicatorStyle)}使用,不必每次解析XML属性
+ */
+public final class IndicatorStyle {
+    /**
+     * 圆点风格,未选的圆点是实心的
+     */
+    public static final int STYLE_FILL = IndicatorRenderer.STYLE_POINT_FILL;
+
+    /**
+     * 圆点风格,未选的圆点是空心的
+     */
+    public static final int STYLE_STROKE = IndicatorRenderer.STYLE_POINT_STROKE;
+
+    /**
+     * 长条风格
+     */
+    public static final int STYLE_STRIP = IndicatorRenderer.STYLE_STRIP;
+
+    /**
+     * 绘制配置:绘制粘连部分,关闭时只在当前位置绘制一个圆点/一段长条
+     */
+    public static final int RENDER_STICKY = IndicatorRenderer.RENDER_STICKY;
+
+    /**
+     * 绘制配置:绘制闪光圆环
+     */
+    public static final int RENDER_FLASH = IndicatorRenderer.RENDER_FLASH;
+
+    /**
+     * 绘制配置:当前圆点/长条和闪光圆环使用抗锯齿
+     */
+    public static final int RENDER_ANTI_ALIAS = IndicatorRenderer.RENDER_ANTI_ALIAS;
+
+    /**
+     * 绘制配置:完整的效果
+     */
+    public static final int RENDER_FULL = IndicatorRenderer.RENDER_FULL;
+
+    final int color;
+    final int backColor;
+    final float radius;
+    final float interval;
+    final int style;
+    final float stripWidth;
+    final float stripHeight;
+    final boolean hideBack;
+    final boolean hideFlash;
+    final boolean allowAnim;
+    final int animMode;
+    final boolean useMetaball;
+    final int idleRender;
+    final int scrollRender;
+    final long pointDuration;
+    final long stickyDuration;
+    final long rebuildDuration;
+    final long flashDuration;
+
+    private IndicatorStyle(Builder builder){
+        color = builder.mColor;
+        backColor = builder.mBackColor;
+        radius = builder.mRadius;
+        interval = builder.mInterval < 0 ? builder.mRadius * 2 : builder.mInterval;
+        style = builder.mStyle;
+        stripWidth = builder.mStripWidth;
+        stripHeight = builder.mStripHeight;
+        hideBack = builder.hideBack;
+        hideFlash = builder.hideFlash;
+        allowAnim = builder.allowAnim;
+        animMode = builder.mAnimMode;
+        useMetaball = builder.useMetaball;
+        idleRender = builder.mIdleRender;
+        scrollRender = builder.mScrollRender;
+        pointDuration = builder.mPointDuration;
+        stickyDuration = builder.mStickyDuration;
+        rebuildDuration = builder.mRebuildDuration;
+        flashDuration = builder.mFlashDuration;
+    }
+
+    public int getColor(){
+        return color;
+    }
+
+    public int getBackColor(){
+        return backColor;
+    }
+
+    public float getRadius(){
+        return radius;
+    }
+
+    public float getInterval(){
+        return interval;
+    }
+
+    public int getStyle(){
+        return style;
+    }
+
+    public float getStripWidth(){
+        return stripWidth;
+    }
+
+    public float getStripHeight(){
+        return stripHeight;
+    }
+
+    public boolean isBackHidden(){
+        return hideBack;
+    }
+
+    public boolean isFlashHidden(){
+        return hideFlash;
+    }
+
+    public boolean isAnimAllowed(){
+        return allowAnim;
+    }
+
+    public int getAnimMode(){
+        return animMode;
+    }
+
+    public boolean isMetaballUsed(){
+        return useMetaball;
+    }
+
+    public int getIdleRender(){
+        return idleRender;
+    }
+
+    public int getScrollRender(){
+        return scrollRender;
+    }
+
+    /**
+     * 默认值与XML属性的默认值相同
+     */
+    public static final class Builder {
+        private int mColor = Color.RED;
+        private int mBackColor = Color.LTGRAY;
+        private float mRadius;
+        private float mInterval = -1;
+        private int mStyle = STYLE_FILL;
+        private float mStripWidth;
+        private float mStripHeight = 10;
+        private boolean hideBack;
+        private boolean hideFlash;
+        private boolean allowAnim = true;
+        private int mAnimMode = StickyIndicator.ANIM_MODE_STICKY;
+        private boolean useMetaball;
+        private int mIdleRender = RENDER_FULL;
+        private int mScrollRender = RENDER_FULL;
+        private long mPointDuration = IndicatorRenderer.DURATION_POINT;
+        private long mStickyDuration = IndicatorRenderer.DURATION_STICKY;
+        private long mRebuildDuration = IndicatorRenderer.DURATION_REBUILD;
+        private long mFlashDuration = IndicatorRenderer.DURATION_FLASH;
+
+        public Builder(Context context){
+            mRadius = ScreenUtil.dipTopx(context,10);
+            mStripWidth = ScreenUtil.dipTopx(context,30);
+        }
+
+        public Builder setColor(int color){
+            mColor = color;
+            return this;
+        }
+
+        public Builder setBackColor(int color){
+            mBackColor = color;
+            return this;
+        }
+
+        /**
+         * @param radius 圆点半径,单位px
+         */
+        public Builder setRadius(float radius){
+            mRadius = radius;
+            return this;
+        }
+
+        /**
+         * @param interval 圆点/长条之间的间隔,单位px,默认为圆点直径
+         */
+        public Builder setInterval(float interval){
+            mInterval = interval;
+            return this;
+        }
+
+        /**
+         * @param style {@link #STYLE_FILL}、{@link #STYLE_STROKE}或{@link #STYLE_STRIP}
+         */
+        public Builder setStyle(int style){
+            mStyle = style;
+            return this;
+        }
+
+        /**
+         * @param stripWidth 长条的长度,单位px
+         */
+        public Builder setStripWidth(float stripWidth){
+            mStripWidth = stripWidth;
+            return this;
+        }
+
+        /**
+         * @param stripHeight 长条的高度,单位px
+         */
+        public Builder setStripHeight(float stripHeight){
+            mStripHeight = stripHeight;
+            return this;
+        }
+
+        public Builder hideBack(boolean hide){
+            hideBack = hide;
+            return this;
+        }
+
+        public Builder hideFlash(boolean hide){
+            hideFlash = hide;
+            return this;
+        }
+
+        public Builder allowAnim(boolean allow){
+            allowAnim = allow;
+            return this;
+        }
+
+        /**
+         * @param mode {@link StickyIndicator#ANIM_MODE_STICKY}或{@link StickyIndicator#ANIM_MODE_SPRING}
+         */
+        public Builder setAnimMode(int mode){
+            mAnimMode = mode;
+            return this;
+        }
+
+        /**
+         * 圆点风格下用元球轮廓绘制粘连部分,两个圆点距离超过半径的5倍后分离
+         */
+        public Builder useMetaball(boolean use){
+            useMetaball = use;
+            return this;
+        }
+
+        /**
+         * 设置静止和滑动时的绘制配置,默认都是{@link #RENDER_FULL}
+         * @param idle 静止时的绘制配置
+         * @param scroll 拖动和惯性滑动时的绘制配置,例如只保留{@link #RENDER_ANTI_ALIAS}
+         */
+        public Builder setRenderProfiles(int idle,int scroll){
+            mIdleRender = idle;
+            mScrollRender = scroll;
+            return this;
+        }
+
+        /**
+         * 设置各动画阶段的时长,单位毫秒
+         * @param point 弹出
+         * @param sticky 弹回
+         * @param rebuild 长条恢复长度
+         * @param flash 闪光
+         */
+        public Builder setDurations(long point,long sticky,long rebuild,long flash){
+            mPointDuration = point;
+            mStickyDuration = sticky;
+            mRebuildDuration = rebuild;
+            mFlashDuration = flash;
+            return this;
+        }
+
+        public IndicatorStyle build(){
+            return new IndicatorStyle(this);
+        }
+    }
+}
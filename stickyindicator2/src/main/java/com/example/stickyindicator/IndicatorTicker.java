@@ -0,0 +1,55 @@
+package com.example.stickyindicator;
+
+import android.view.Choreographer;
+import android.view.animation.AnimationUtils;
+
+/**
+ * 默认的帧时钟,与屏幕刷新同步,同一线程中所有正在播放动画的指示器共用
+ * 每一帧只向Choreographer注册一次回调,在回调中依次驱动所有指示器,
+ * 没有指示器在播放动画时不会注册回调。与Choreographer一样,每个有Looper的线程各有一个实例
+ */
+final class IndicatorTicker implements FrameClock, Choreographer.FrameCallback {
+    private static final ThreadLocal<IndicatorTicker> sInstance = new ThreadLocal<IndicatorTicker>() {
+        @Override
+        protected IndicatorTicker initialValue() {
+            return new IndicatorTicker();
+        }
+    };
+
+    private final FrameCallbackList mCallbacks = new FrameCallbackList();
+    private boolean isPosted;
+
+    static IndicatorTicker getInstance(){
+        return sInstance.get();
+    }
+
+    private IndicatorTicker(){
+    }
+
+    @Override
+    public long now() {
+        return AnimationUtils.currentAnimationTimeMillis();
+    }
+
+    @Override
+    public void add(Callback callback){
+        if(mCallbacks.add(callback) && !isPosted){
+            isPosted = true;
+            Choreographer.getInstance().postFrameCallback(this);
+        }
+    }
+
+    @Override
+    public void remove(Callback callback){
+        mCallbacks.remove(callback);
+    }
+
+    @Override
+    public void doFrame(long frameTimeNanos) {
+        isPosted = false;
+        if(mCallbacks.dispatch(frameTimeNanos / 1000000) && !isPosted){
+            isPosted = true;
+            Choreographer.getInstance().postFrameCallback(this);
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.stickyindicator;
+
+/**
+ * 手动推进的帧时钟,不依赖屏幕刷新和任何Android类
+ * 用于在JVM上逐帧测试动画、重放卡顿记录,或让多个指示器跟随同一个外部时钟。
+ * 与指示器在同一线程使用
+ */
+public final class ManualFrameClock implements FrameClock {
+    private final FrameCallbackList mCallbacks = new FrameCallbackList();
+    private long mTime;
+
+    public ManualFrameClock(){
+    }
+
+    /**
+     * @param startMillis 初始时间
+     */
+    public ManualFrameClock(long startMillis){
+        mTime = startMillis;
+    }
+
+    @Override
+    public long now() {
+        return mTime;
+    }
+
+    @Override
+    public void add(Callback callback) {
+        mCallbacks.add(callback);
+    }
+
+    @Override
+    public void remove(Callback callback) {
+        mCallbacks.remove(callback);
+    }
+
+    /**
+     * 时间前进deltaMillis,然后产生一帧
+     * @param deltaMillis 不能为负数
+     */
+    public void advance(long deltaMillis){
+        if(deltaMillis < 0){
+            throw new IllegalArgumentException("deltaMillis < 0");
+        }
+        mTime += deltaMillis;
+        mCallbacks.dispatch(mTime);
+    }
+
+    /**
+     * 按固定的帧间隔产生多帧,没有回调时提前结束
+     * @param frameMillis 帧间隔
+     * @param maxFrames 最多产生的帧数
+     * @return 实际产生的帧数
+     */
+    public int advanceFrames(long frameMillis,int maxFrames){
+        int frames = 0;
+        while(frames < maxFrames && !mCallbacks.isEmpty()){
+            advance(frameMillis);
+            frames++;
+        }
+        return frames;
+    }
+
+    /**
+     * 是否还有正在播放动画的指示器
+     */
+    public boolean hasCallbacks(){
+        return mCallbacks.size() > 0;
+    }
+}
@@ -0,0 +1,112 @@
+package com.example.stickyindicator;
+
+/**
+ * 粘连部分的元球(metaball)轮廓查找表
+ * 两个等大圆之间的连接轮廓只取决于圆心距离与半径之比,因此以半径为1预先计算固定数量的距离步长,
+ * 绘制时在相邻两项之间线性插值,再按实际半径缩放。所有指示器共用一张表,不依赖任何Android类
+ *
+ * 每一项为上半部分轮廓的一段三次贝塞尔曲线,以粘连圆的圆心为原点、指向当前圆点为X轴正方向、向上为Y轴正方向:
+ * 起点(粘连圆上)、两个控制点、终点(当前圆点上)共8个值,下半部分与之关于X轴对称
+ */
+final class MetaballTable {
+    /**
+     * 距离步长的个数
+     */
+    static final int STEPS = 64;
+
+    /**
+     * 超过该距离(以半径为单位)后两个圆分离,不再绘制连接部分
+     */
+    static final float MAX_DISTANCE = 5f;
+
+    /**
+     * 每一项的值的个数
+     */
+    static final int STRIDE = 8;
+
+    /**
+     * 连接点在两圆之间展开的程度,以及控制柄的长度
+     */
+    private static final double SPREAD = 0.5;
+    private static final double HANDLE_SIZE = 2.4;
+
+    private final float[] mTable = new float[(STEPS + 1) * STRIDE];
+
+    private static final class Holder {
+        static final MetaballTable INSTANCE = new MetaballTable();
+    }
+
+    /**
+     * 第一次使用时计算,之后所有指示器共用
+     */
+    static MetaballTable getInstance(){
+        return Holder.INSTANCE;
+    }
+
+    private MetaballTable(){
+        for(int i = 0;i <= STEPS;i++){
+            compute(i * MAX_DISTANCE / STEPS,mTable,i * STRIDE);
+        }
+    }
+
+    /**
+     * 直接计算半径为1、圆心距离为distance的两个圆之间的连接轮廓
+     * @param distance 圆心距离,不小于0
+     * @param out 写入{@link #STRIDE}个值
+     * @param offset 写入的起始位置
+     */
+    static void compute(float distance,float[] out,int offset){
+        final double d = distance;
+        //两圆相交时,连接点从交点开始展开
+        final double u = d < 2 ? Math.acos(d / 2) : 0;
+        final double maxSpread = Math.PI / 2;
+        final double angle1 = u + (maxSpread - u) * SPREAD;
+        final double angle2 = Math.PI - u - (Math.PI - u - maxSpread) * SPREAD;
+
+        final double x1 = Math.cos(angle1);
+        final double y1 = Math.sin(angle1);
+        final double x2 = d + Math.cos(angle2);
+        final double y2 = Math.sin(angle2);
+
+        //控制柄沿圆的切线方向指向另一个圆,距离越近越短
+        double handle = Math.min(SPREAD * HANDLE_SIZE,Math.hypot(x2 - x1,y2 - y1) / 2);
+        handle *= Math.min(1,d);
+
+        out[offset] = (float) x1;
+        out[offset + 1] = (float) y1;
+        out[offset + 2] = (float) (x1 + handle * Math.sin(angle1));
+        out[offset + 3] = (float) (y1 - handle * Math.cos(angle1));
+        out[offset + 4] = (float) (x2 - handle * Math.sin(angle2));
+        out[offset + 5] = (float) (y2 + handle * Math.cos(angle2));
+        out[offset + 6] = (float) x2;
+        out[offset + 7] = (float) y2;
+    }
+
+    /**
+     * 在查找表中插值得到连接轮廓
+     * @param distance 圆心距离与半径之比
+     * @param out 写入{@link #STRIDE}个值
+     * @return 两个圆已经分离时返回false
+     */
+    boolean lookup(float distance,float[] out){
+        if(!(distance < MAX_DISTANCE)){
+            return false;
+        }
+
+        final float position = Math.max(0,distance) * STEPS / MAX_DISTANCE;
+        int index = (int) position;
+        float fraction = position - index;
+        if(index >= STEPS){
+            index = STEPS - 1;
+            fraction = 1;
+        }
+
+        final float[] table = mTable;
+        final int from = index * STRIDE;
+        final int to = from + STRIDE;
+        for(int i = 0;i < STRIDE;i++){
+            out[i] = table[from + i] + (table[to + i] - table[from + i]) * fraction;
+        }
+        return true;
+    }
+}
@@ -0,0 +1,136 @@
+package com.example.stickyindicator;
+
+/**
+ * 跟随滑动的合并:只保留最新的(页面位置,滑过的比例),在绘制开始时取走并计算一次
+ * 限制帧率时,间隔不足的更新注册到帧时钟,到期的那一帧通知重绘后立即移除,不会一直占用时钟。不依赖任何Android类
+ */
+final class PendingScroll {
+    /**
+     * 帧时间的误差,避免帧率上限与屏幕刷新率相同时因为1ms的误差而跳帧
+     */
+    static final long FRAME_SLOP = 2;
+
+    /**
+     * 有新的滑动位置需要重绘时回调
+     */
+    interface Callback {
+        void onScrollDue(int position,float offset);
+    }
+
+    private final Callback mCallback;
+    private FrameClock mFrameClock;
+
+    private int mPosition;
+    private float mOffset;
+    private boolean hasPending;
+
+    /**
+     * 最小帧间隔,为0时每次更新都立即通知
+     */
+    private long mFrameInterval;
+    private long mLastTakeTime = Long.MIN_VALUE / 2;
+    private boolean isPosted;
+
+    private final FrameClock.Callback mFrameCallback = new FrameClock.Callback() {
+        @Override
+        public void onFrame(long frameTimeMillis) {
+            if(hasPending && frameTimeMillis - mLastTakeTime < mFrameInterval - FRAME_SLOP){
+                //间隔不足,保持注册等待下一帧
+                return;
+            }
+            removeFrameCallback();
+            if(hasPending){
+                mCallback.onScrollDue(mPosition,mOffset);
+            }
+        }
+    };
+
+    PendingScroll(FrameClock clock,Callback callback){
+        mFrameClock = clock;
+        mCallback = callback;
+    }
+
+    /**
+     * 替换帧时钟,等待中的更新在新时钟上继续等待
+     */
+    void setFrameClock(FrameClock clock){
+        final boolean posted = isPosted;
+        removeFrameCallback();
+        mFrameClock = clock;
+        if(posted){
+            postFrameCallback();
+        }
+    }
+
+    /**
+     * @param fps 每秒最多更新的次数,小于等于0时不限制
+     */
+    void setFrameRate(int fps){
+        mFrameInterval = fps > 0 ? 1000 / fps : 0;
+    }
+
+    /**
+     * 记录最新的滑动位置,允许更新时立即回调,否则等到间隔足够的那一帧
+     */
+    void set(int position,float offset){
+        mPosition = position;
+        mOffset = offset;
+        hasPending = true;
+        if(isPosted){
+            return;
+        }
+        if(mFrameClock.now() - mLastTakeTime < mFrameInterval - FRAME_SLOP){
+            postFrameCallback();
+        }else{
+            mCallback.onScrollDue(position,offset);
+        }
+    }
+
+    /**
+     * 绘制开始时取走最新的滑动位置
+     * 被帧率上限推迟的位置还没有到期,也没有为它重绘,由其他原因引起的绘制不会取走它
+     * @return 是否有到期的滑动位置,有时通过{@link #getPosition()}和{@link #getOffset()}获取
+     */
+    boolean take(){
+        if(!hasPending || isPosted){
+            return false;
+        }
+        hasPending = false;
+        mLastTakeTime = mFrameClock.now();
+        return true;
+    }
+
+    int getPosition(){
+        return mPosition;
+    }
+
+    float getOffset(){
+        return mOffset;
+    }
+
+    /**
+     * 丢弃未计算的滑动位置
+     */
+    void cancel(){
+        hasPending = false;
+        removeFrameCallback();
+    }
+
+    boolean isPosted(){
+        return isPosted;
+    }
+
+    private void postFrameCallback(){
+        if(!isPosted){
+            isPosted = true;
+            mFrameClock.add(mFrameCallback);
+        }
+    }
+
+    private void removeFrameCallback(){
+        if(isPosted){
+            isPosted = false;
+            mFrameClock.remove(mFrameCallback);
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package com.example.stickyindicator;
+
+/**
+ * 根据实际的绘制耗时自动调整绘制质量
+ * 每{@link #WINDOW}次绘制计算一次平均耗时,超出预算时立即降低一级;
+ * 连续多个窗口都远低于预算时才提高一级,提高后马上又超出预算的级别需要等待更久才会再次尝试,避免来回切换。
+ * 硬件加速的Canvas只是记录绘制命令,软件绘制的耗时包含光栅化,两者使用不同的预算。
+ * 对当前外观没有作用的级别(例如未使用元球轮廓时的{@link #LEVEL_NO_METABALL})直接跳过。不依赖任何Android类
+ */
+final class QualityGovernor {
+    /**
+     * 完整效果
+     */
+    static final int LEVEL_FULL = 0;
+
+    /**
+     * 不使用元球轮廓,用普通的粘连轮廓
+     */
+    static final int LEVEL_NO_METABALL = 1;
+
+    /**
+     * 不绘制闪光圆环
+     */
+    static final int LEVEL_NO_FLASH = 2;
+
+    /**
+     * 当前圆点/长条不使用抗锯齿
+     */
+    static final int LEVEL_NO_ANTI_ALIAS = 3;
+
+    /**
+     * 所有级别都有作用,每一位对应一个级别
+     */
+    static final int ALL_LEVELS = (1 << (LEVEL_NO_ANTI_ALIAS + 1)) - 1;
+
+    /**
+     * 每次评估的绘制次数
+     */
+    static final int WINDOW = 30;
+
+    /**
+     * 每次绘制的预算,单位纳秒
+     */
+    static final long BUDGET_HARDWARE = 500000;
+    static final long BUDGET_SOFTWARE = 2000000;
+
+    /**
+     * 提高一级前需要连续低于预算一半的窗口数,以及它的上限
+     */
+    static final int UP_WINDOWS = 4;
+    static final int MAX_UP_WINDOWS = 64;
+
+    private int mLevel = LEVEL_FULL;
+    private boolean isHardware = true;
+
+    private int mFrames;
+    private long mTotalNanos;
+
+    private int mCheapWindows;
+    private int mUpWindows = UP_WINDOWS;
+
+    /**
+     * 刚提高级别后的第一个窗口,此时超出预算说明提高得太早
+     */
+    private boolean isProbing;
+
+    int getLevel(){
+        return mLevel;
+    }
+
+    /**
+     * 记录一次绘制
+     * @param drawNanos 本次绘制的耗时
+     * @param hardware Canvas是否为硬件加速
+     * @param levels 对当前外观有作用的级别,第n位对应级别n,{@link #LEVEL_FULL}总是可用
+     * @return 绘制级别是否变化
+     */
+    boolean onDraw(long drawNanos,boolean hardware,int levels){
+        if(hardware != isHardware){
+            //预算不同,之前的统计不再适用
+            isHardware = hardware;
+            mFrames = 0;
+            mTotalNanos = 0;
+            mCheapWindows = 0;
+        }
+
+        mTotalNanos += drawNanos;
+        if(++mFrames < WINDOW){
+            return false;
+        }
+
+        final long average = mTotalNanos / mFrames;
+        mFrames = 0;
+        mTotalNanos = 0;
+        final boolean probing = isProbing;
+        isProbing = false;
+
+        final long budget = isHardware ? BUDGET_HARDWARE : BUDGET_SOFTWARE;
+        if(average > budget){
+            mCheapWindows = 0;
+            if(probing){
+                mUpWindows = Math.min(mUpWindows * 2,MAX_UP_WINDOWS);
+            }
+            for(int level = mLevel + 1;level <= LEVEL_NO_ANTI_ALIAS;level++){
+                if((levels & (1 << level)) != 0){
+                    mLevel = level;
+                    return true;
+                }
+            }
+        }else if(average < budget / 2){
+            if(++mCheapWindows >= mUpWindows && mLevel > LEVEL_FULL){
+                mCheapWindows = 0;
+                //回到上一个有作用的级别,都没有作用时回到完整效果
+                int level = mLevel - 1;
+                while(level > LEVEL_FULL && (levels & (1 << level)) == 0){
+                    level--;
+                }
+                mLevel = level;
+                isProbing = true;
+                return true;
+            }
+        }else{
+            mCheapWindows = 0;
+        }
+        return false;
+    }
+
+    /**
+     * 恢复完整效果并清空统计
+     */
+    void reset(){
+        mLevel = LEVEL_FULL;
+        mFrames = 0;
+        mTotalNanos = 0;
+        mCheapWindows = 0;
+        mUpWindows = UP_WINDOWS;
+        isProbing = false;
+    }
+}
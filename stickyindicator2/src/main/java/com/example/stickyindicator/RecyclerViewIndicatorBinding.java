@@ -0,0 +1,105 @@
+package com.example.stickyindicator;
+
+import android.support.v7.widget.RecyclerView;
+import android.view.View;
+
+/**
+ * 让指示器跟随使用PagerSnapHelper的横向RecyclerView滑动,每一页的宽度等于RecyclerView的宽度
+ * 滑动位置由每次onScrolled()的dx累加得到,滑动过程中不需要遍历子View,
+ * 只在绑定后第一次滑动和停止滑动时根据子View校准一次
+ */
+public class RecyclerViewIndicatorBinding extends RecyclerView.OnScrollListener {
+    private RecyclerView mRecyclerView;
+    private StickyIndicator mIndicator;
+
+    private int mPageWidth;
+    private int mScrollX;
+    private boolean isSynced;
+
+    private RecyclerViewIndicatorBinding(RecyclerView recyclerView, StickyIndicator indicator){
+        mRecyclerView = recyclerView;
+        mIndicator = indicator;
+    }
+
+    /**
+     * 绑定RecyclerView和指示器
+     * @param recyclerView
+     * @param indicator
+     * @return 可以通过{@link #unbind()}解除绑定
+     */
+    public static RecyclerViewIndicatorBinding bind(RecyclerView recyclerView, StickyIndicator indicator){
+        RecyclerViewIndicatorBinding binding = new RecyclerViewIndicatorBinding(recyclerView,indicator);
+        recyclerView.addOnScrollListener(binding);
+        return binding;
+    }
+
+    /**
+     * 解除绑定
+     */
+    public void unbind(){
+        mRecyclerView.removeOnScrollListener(this);
+        isSynced = false;
+    }
+
+    @Override
+    public void onScrolled(RecyclerView recyclerView, int dx, int dy) {
+        if(!isSynced || getPageWidth(recyclerView) != mPageWidth){
+            sync(recyclerView);
+        }else{
+            mScrollX += dx;
+        }
+
+        if(!isSynced){
+            return;
+        }
+
+        final int scrollX = Math.max(0,mScrollX);
+        final int position = scrollX / mPageWidth;
+        final float offset = (float) (scrollX - position * mPageWidth) / mPageWidth;
+        mIndicator.setPositionOffset(position,offset);
+    }
+
+    @Override
+    public void onScrollStateChanged(RecyclerView recyclerView, int newState) {
+        mIndicator.setScrolling(newState != RecyclerView.SCROLL_STATE_IDLE);
+        if(newState != RecyclerView.SCROLL_STATE_IDLE){
+            return;
+        }
+
+        //停止滑动时重新校准,消除累加的误差,并选中停下的页面
+        sync(recyclerView);
+        if(!isSynced){
+            return;
+        }
+
+        final int position = Math.round(Math.max(0,mScrollX) / (float) mPageWidth);
+        if(position != mIndicator.getCurrentPosition()){
+            mIndicator.setPosition(position);
+        }
+    }
+
+    /**
+     * 根据第一个子View的位置计算已经滑动的距离
+     * @param recyclerView
+     */
+    private void sync(RecyclerView recyclerView){
+        isSynced = false;
+        mPageWidth = getPageWidth(recyclerView);
+        if(mPageWidth <= 0 || recyclerView.getChildCount() == 0){
+            return;
+        }
+
+        final View first = recyclerView.getChildAt(0);
+        final int position = recyclerView.getChildAdapterPosition(first);
+        if(position == RecyclerView.NO_POSITION){
+            return;
+        }
+
+        mScrollX = position * mPageWidth + recyclerView.getPaddingLeft() - first.getLeft();
+        isSynced = true;
+    }
+
+    private static int getPageWidth(RecyclerView recyclerView){
+        return recyclerView.getWidth() - recyclerView.getPaddingLeft() - recyclerView.getPaddingRight();
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.stickyindicator;
+
+/**
+ * 圆点/长条的点击判断
+ * 所有圆点/长条等距排列,直接根据触点坐标算出可能命中的位置,只检查该位置附近的格子,
+ * 与逐个检查所有圆点/长条的结果相同,但耗时与个数无关
+ */
+final class SlotHitTester {
+    private SlotHitTester(){
+    }
+
+    /**
+     * 第i个圆点/长条的锚点X坐标为 base + i * pitch,
+     * 点击范围为 [锚点 - leftExtent - slop, 锚点 + rightExtent + slop],
+     * 竖直方向为 [centerY - halfHeight - slop, centerY + halfHeight + slop]
+     * @param x 触点X坐标
+     * @param y 触点Y坐标
+     * @param base 第0个圆点/长条的锚点X坐标,圆点为圆心,长条为起点
+     * @param pitch 相邻两个锚点的距离
+     * @param leftExtent 锚点左侧的范围
+     * @param rightExtent 锚点右侧的范围
+     * @param centerY 圆点/长条中心的Y坐标
+     * @param halfHeight 圆点/长条高度的一半
+     * @param slop 额外增加的点击范围
+     * @param count 圆点/长条的个数
+     * @return 命中的位置,若点击范围有重叠则返回较小的位置,未命中时返回-1
+     */
+    static int find(float x,float y,float base,float pitch,float leftExtent,float rightExtent,
+                    float centerY,float halfHeight,float slop,int count){
+        if(count <= 0){
+            return -1;
+        }
+
+        if(!(y >= centerY - halfHeight - slop && y <= centerY + halfHeight + slop)){
+            return -1;
+        }
+
+        if(!(pitch > 0)){
+            return findLinear(x,base,pitch,leftExtent,rightExtent,slop,count);
+        }
+
+        //右边界不小于x的第一个位置,若它不包含x,后面的位置左边界更大,也不会包含x
+        //计算时存在浮点误差,所以同时检查它前后各一个位置
+        final double first = Math.ceil((x - slop - rightExtent - base) / (double) pitch);
+        final int candidate = (int) Math.max(0,Math.min(count - 1,first));
+        final int from = Math.max(0,candidate - 1);
+        final int to = Math.min(count - 1,candidate + 1);
+        for(int i = from;i <= to;i++){
+            if(contains(x,base + i * pitch,leftExtent,rightExtent,slop)){
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static int findLinear(float x,float base,float pitch,float leftExtent,float rightExtent,
+                                  float slop,int count){
+        for(int i = 0;i < count;i++){
+            if(contains(x,base + i * pitch,leftExtent,rightExtent,slop)){
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static boolean contains(float x,float anchor,float leftExtent,float rightExtent,float slop){
+        return x >= anchor - leftExtent - slop && x <= anchor + rightExtent + slop;
+    }
+}
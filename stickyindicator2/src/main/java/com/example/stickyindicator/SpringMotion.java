@@ -0,0 +1,60 @@
+package com.example.stickyindicator;
+
+/**
+ * 一维阻尼弹簧
+ * 修改目标位置时保留当前的位置和速度,运动会从当前状态平滑地转向新的目标
+ */
+final class SpringMotion {
+    /**
+     * 每一步积分的最大时长(秒),保证刚度较大时也能稳定
+     */
+    private static final float MAX_STEP = 1 / 240f;
+
+    /**
+     * 距离和速度都小于该值时认为已经静止
+     */
+    private static final float REST_DISTANCE = 0.5f;
+    private static final float REST_VELOCITY = 5f;
+
+    float position;
+    float velocity;
+    float target;
+
+    private float mStiffness;
+    private float mDamping;
+
+    /**
+     * @param stiffness 刚度
+     * @param dampingRatio 阻尼比,1为临界阻尼,小于1时会轻微回弹
+     */
+    void setSpring(float stiffness,float dampingRatio){
+        mStiffness = stiffness;
+        mDamping = (float) (2 * dampingRatio * Math.sqrt(stiffness));
+    }
+
+    /**
+     * 向前推进一段时间
+     * @param seconds 时长(秒)
+     */
+    void step(float seconds){
+        while(seconds > 0){
+            final float dt = Math.min(seconds,MAX_STEP);
+            final float acceleration = -mStiffness * (position - target) - mDamping * velocity;
+            velocity += acceleration * dt;
+            position += velocity * dt;
+            seconds -= dt;
+        }
+    }
+
+    boolean isAtRest(){
+        return Math.abs(position - target) < REST_DISTANCE && Math.abs(velocity) < REST_VELOCITY;
+    }
+
+    /**
+     * 直接停在目标位置
+     */
+    void snap(){
+        position = target;
+        velocity = 0;
+    }
+}
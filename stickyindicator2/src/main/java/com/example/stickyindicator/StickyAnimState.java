@@ -0,0 +1,414 @@
+package com.example.stickyindicator;
+
+/**
+ * 弹性动画的时间线
+ * 一次过渡分为四个阶段:弹出、弹回(同时闪光)、长条恢复长度,
+ * 所有阶段由同一个时钟驱动,每一帧调用一次{@link #tick(long)}即可算出全部的当前值。
+ * 弹簧模式下两端各由一个弹簧驱动,连续的过渡只会修改弹簧的目标,速度得以保留。
+ * 全部使用基本类型,逐帧计算过程中不会分配任何对象
+ */
+final class StickyAnimState {
+    /**
+     * 领先一端和落后一端弹簧的刚度与阻尼比
+     */
+    private static final float LEAD_STIFFNESS = 380f;
+    private static final float LEAD_DAMPING_RATIO = 0.8f;
+    private static final float TRAIL_STIFFNESS = 150f;
+    private static final float TRAIL_DAMPING_RATIO = 1f;
+
+    /**
+     * 两帧之间最多推进的时长,避免主线程卡顿后弹簧一步跨过目标
+     */
+    private static final long MAX_SPRING_FRAME = 64;
+
+    /**
+     * 弹出动画的起止X坐标
+     */
+    float pointFrom;
+    float pointTo;
+
+    /**
+     * 弹回动画的起止X坐标
+     */
+    float stickyFrom;
+    float stickyTo;
+
+    /**
+     * 长条恢复长度动画的起止X坐标
+     */
+    float rebuildFrom;
+    float rebuildTo;
+
+    /**
+     * 闪光圆环的最终半径
+     */
+    float flashTo;
+
+    float pointX;
+    float stickyX;
+    float flashRadius;
+    float flashStrokeWidth;
+
+    private long mPointDuration;
+    private long mStickyDuration;
+    private long mRebuildDuration;
+    private long mFlashDuration;
+
+    /**
+     * 各阶段的开始时间,小于0表示该阶段没有在进行
+     */
+    private long mPointStart = -1;
+    private long mStickyStart = -1;
+    private long mRebuildStart = -1;
+    private long mFlashStart = -1;
+
+    private boolean isStrip;
+    private float mStripWidth;
+    private float mTargetX;
+    private float mNextFlashTo;
+
+    private boolean isSpringMode;
+    private boolean isSpringRunning;
+    private boolean isFlashPending;
+    private long mLastSpringTick;
+
+    /**
+     * pointX和stickyX分别由这两个弹簧驱动
+     */
+    private SpringMotion mPointSpring = new SpringMotion();
+    private SpringMotion mStickySpring = new SpringMotion();
+
+    /**
+     * 记录各阶段的实际时长,为null时不统计
+     */
+    private IndicatorMetrics mMetrics;
+
+    /**
+     * 设置各阶段的时长,为0时该阶段在下一帧直接完成
+     */
+    void setDurations(long point,long sticky,long rebuild,long flash){
+        mPointDuration = point;
+        mStickyDuration = sticky;
+        mRebuildDuration = rebuild;
+        mFlashDuration = flash;
+    }
+
+    /**
+     * 是否使用弹簧模式,在下一次过渡开始时生效
+     * @param spring
+     */
+    void setSpringMode(boolean spring){
+        isSpringMode = spring;
+    }
+
+    void setMetrics(IndicatorMetrics metrics){
+        mMetrics = metrics;
+    }
+
+    /**
+     * 开始一次新的过渡,调用前需要把{@link #pointX}和{@link #stickyX}设为当前的位置
+     * @param now 当前帧的时间
+     * @param targetX 目标圆点的圆心X坐标/目标长条的起始X坐标
+     * @param strip 是否为长条风格
+     * @param stripWidth 长条的长度
+     * @param nextFlashTo 本次闪光圆环的最终半径
+     */
+    void start(long now,float targetX,boolean strip,float stripWidth,float nextFlashTo){
+        if(isSpringMode){
+            retarget(now,targetX,strip,stripWidth,nextFlashTo);
+            return;
+        }
+        isSpringRunning = false;
+
+        final float from = pointX;
+
+        //提前结束上一次的弹回动画和恢复动画,避免与本次的动画冲突
+        if(mPointStart >= 0){
+            endPhase(IndicatorMetrics.PHASE_POP,mPointStart,now);
+        }
+        if(mStickyStart >= 0){
+            updateSticky(1);
+            endPhase(IndicatorMetrics.PHASE_STICK,mStickyStart,now);
+            onStickyEnd(now);
+        }
+        if(mRebuildStart >= 0){
+            updateRebuild(1,mTargetX,mStripWidth);
+            endPhase(IndicatorMetrics.PHASE_REBUILD,mRebuildStart,now);
+            mRebuildStart = -1;
+        }
+
+        isStrip = strip;
+        mStripWidth = stripWidth;
+        mTargetX = targetX;
+        mNextFlashTo = nextFlashTo;
+
+        pointFrom = from;
+        pointTo = strip ? targetX + stripWidth / 2 : targetX;
+        mPointStart = now;
+    }
+
+    /**
+     * 弹簧模式下的过渡:只修改两个弹簧的目标,正在进行的运动和速度都会保留,
+     * 连续多次调用会合并为一次运动
+     */
+    private void retarget(long now,float targetX,boolean strip,float stripWidth,float nextFlashTo){
+        //弹簧模式不使用分阶段的动画,只保留闪光
+        if(mPointStart >= 0){
+            endPhase(IndicatorMetrics.PHASE_POP,mPointStart,now);
+        }
+        if(mStickyStart >= 0){
+            endPhase(IndicatorMetrics.PHASE_STICK,mStickyStart,now);
+        }
+        if(mRebuildStart >= 0){
+            endPhase(IndicatorMetrics.PHASE_REBUILD,mRebuildStart,now);
+        }
+        mPointStart = -1;
+        mStickyStart = -1;
+        mRebuildStart = -1;
+
+        if(!isSpringRunning){
+            mPointSpring.position = pointX;
+            mPointSpring.velocity = 0;
+            mStickySpring.position = stickyX;
+            mStickySpring.velocity = 0;
+            mLastSpringTick = now;
+        }
+
+        isStrip = strip;
+        mStripWidth = stripWidth;
+        mTargetX = targetX;
+        mNextFlashTo = nextFlashTo;
+
+        mPointSpring.target = targetX;
+        mStickySpring.target = strip ? targetX + stripWidth : targetX;
+
+        //圆点风格总是由弹出的圆点领先;长条风格由运动方向前方的一端领先
+        final boolean stickyLeads = strip && mStickySpring.target > mStickySpring.position;
+        if(stickyLeads){
+            mStickySpring.setSpring(LEAD_STIFFNESS,LEAD_DAMPING_RATIO);
+            mPointSpring.setSpring(TRAIL_STIFFNESS,TRAIL_DAMPING_RATIO);
+        }else{
+            mPointSpring.setSpring(LEAD_STIFFNESS,LEAD_DAMPING_RATIO);
+            mStickySpring.setSpring(TRAIL_STIFFNESS,TRAIL_DAMPING_RATIO);
+        }
+
+        isSpringRunning = true;
+        isFlashPending = true;
+
+        if(mPointDuration <= 0){
+            //不播放动画时直接到达目标
+            mPointSpring.snap();
+            mStickySpring.snap();
+        }
+    }
+
+    private void tickSpring(long now){
+        final long elapsed = Math.min(Math.max(now - mLastSpringTick,0),MAX_SPRING_FRAME);
+        mLastSpringTick = now;
+        mPointSpring.step(elapsed / 1000f);
+        mStickySpring.step(elapsed / 1000f);
+
+        if(isFlashPending && Math.abs(mPointSpring.position - mPointSpring.target) < 1){
+            //首次到达目标时闪光
+            isFlashPending = false;
+            if(mFlashStart >= 0){
+                endPhase(IndicatorMetrics.PHASE_FLASH,mFlashStart,now);
+            }
+            flashTo = mNextFlashTo;
+            mFlashStart = now;
+        }
+
+        if(mPointSpring.isAtRest() && mStickySpring.isAtRest()){
+            mPointSpring.snap();
+            mStickySpring.snap();
+            isSpringRunning = false;
+        }
+
+        pointX = mPointSpring.position;
+        stickyX = mStickySpring.position;
+    }
+
+    /**
+     * 根据当前帧的时间计算所有阶段的值,上一阶段结束的时刻就是下一阶段开始的时刻
+     * @param now 当前帧的时间
+     * @return 是否还有阶段在进行
+     */
+    boolean tick(long now){
+        if(isSpringRunning){
+            tickSpring(now);
+        }
+
+        if(mPointStart >= 0){
+            updatePoint(progress(now,mPointStart,mPointDuration));
+            if(isFinished(now,mPointStart,mPointDuration)){
+                //弹出动画结束后,开始播放弹回动画和闪光动画
+                final long end = mPointStart + mPointDuration;
+                endPhase(IndicatorMetrics.PHASE_POP,mPointStart,end);
+                mPointStart = -1;
+                if(mFlashStart >= 0){
+                    endPhase(IndicatorMetrics.PHASE_FLASH,mFlashStart,end);
+                }
+                stickyFrom = stickyX;
+                stickyTo = pointX + 1;
+                mStickyStart = end;
+                flashTo = mNextFlashTo;
+                mFlashStart = end;
+            }
+        }
+
+        if(mStickyStart >= 0){
+            updateSticky(progress(now,mStickyStart,mStickyDuration));
+            if(isFinished(now,mStickyStart,mStickyDuration)){
+                endPhase(IndicatorMetrics.PHASE_STICK,mStickyStart,mStickyStart + mStickyDuration);
+                onStickyEnd(mStickyStart + mStickyDuration);
+            }
+        }
+
+        if(mRebuildStart >= 0){
+            updateRebuild(progress(now,mRebuildStart,mRebuildDuration),mTargetX,mStripWidth);
+            if(isFinished(now,mRebuildStart,mRebuildDuration)){
+                endPhase(IndicatorMetrics.PHASE_REBUILD,mRebuildStart,mRebuildStart + mRebuildDuration);
+                mRebuildStart = -1;
+            }
+        }
+
+        if(mFlashStart >= 0){
+            updateFlash(progress(now,mFlashStart,mFlashDuration));
+            if(isFinished(now,mFlashStart,mFlashDuration)){
+                endPhase(IndicatorMetrics.PHASE_FLASH,mFlashStart,mFlashStart + mFlashDuration);
+                mFlashStart = -1;
+            }
+        }
+
+        return isRunning();
+    }
+
+    /**
+     * 立即停止所有阶段,不再更新任何值
+     */
+    void cancel(){
+        mPointStart = -1;
+        mStickyStart = -1;
+        mRebuildStart = -1;
+        mFlashStart = -1;
+        isSpringRunning = false;
+        isFlashPending = false;
+        flashRadius = 0;
+    }
+
+    boolean isRunning(){
+        return isSpringRunning || mPointStart >= 0 || mStickyStart >= 0 || mRebuildStart >= 0 || mFlashStart >= 0;
+    }
+
+    /**
+     * 是否处于弹回阶段(弹簧模式下为弹簧运动中),此时不再跟随页面滑动
+     */
+    boolean isSticking(){
+        return mStickyStart >= 0 || isSpringRunning;
+    }
+
+    /**
+     * 整体平移所有X坐标,用于窗口滑动
+     * @param dx
+     */
+    void offset(float dx){
+        pointFrom += dx;
+        pointTo += dx;
+        stickyFrom += dx;
+        stickyTo += dx;
+        rebuildFrom += dx;
+        rebuildTo += dx;
+        pointX += dx;
+        stickyX += dx;
+        mTargetX += dx;
+        mPointSpring.position += dx;
+        mPointSpring.target += dx;
+        mStickySpring.position += dx;
+        mStickySpring.target += dx;
+    }
+
+    private void onStickyEnd(long end){
+        mStickyStart = -1;
+        if(isStrip){
+            //长条到达目的地后,开始播放恢复原状长度的动画
+            rebuildFrom = pointX;
+            rebuildTo = pointX - mStripWidth / 2;
+            mRebuildStart = end;
+        }
+    }
+
+    /**
+     * 弹出动画的一帧
+     * @param fraction 动画进度(已经过插值器处理)
+     */
+    void updatePoint(float fraction){
+        pointX = lerp(pointFrom,pointTo,fraction);
+    }
+
+    /**
+     * 弹回动画的一帧
+     * @param fraction 动画进度(已经过插值器处理)
+     */
+    void updateSticky(float fraction){
+        stickyX = lerp(stickyFrom,stickyTo,fraction);
+    }
+
+    /**
+     * 长条恢复长度动画的一帧
+     * @param fraction 动画进度(已经过插值器处理)
+     * @param currentPointX 当前长条的起始X坐标
+     * @param stripWidth 长条的长度
+     */
+    void updateRebuild(float fraction,float currentPointX,float stripWidth){
+        pointX = lerp(rebuildFrom,rebuildTo,fraction);
+        //+1是为了避免Canvas.drawLine()绘制一条长度为0的线段
+        float currentStripWidth = (stripWidth / 2 + currentPointX - pointX) * 2 + 1;
+        stickyX = pointX + currentStripWidth;
+    }
+
+    /**
+     * 闪光动画的一帧,通过改变圆环的半径和厚度来实现闪光的效果
+     * @param fraction 动画进度(已经过插值器处理)
+     */
+    void updateFlash(float fraction){
+        float value = lerp(0,flashTo,fraction);
+        float half = flashTo / 2;
+        if(value < half * 1.7f){
+            flashRadius = value;
+        }else if(value == flashTo){
+            flashRadius = 0;
+        }
+        flashStrokeWidth = half * 1.5f - value * 0.75f;
+    }
+
+    /**
+     * 记录一个阶段结束(或被打断)时的实际时长
+     */
+    private void endPhase(int phase,long start,long end){
+        if(mMetrics != null){
+            mMetrics.onPhaseEnd(phase,end - start);
+        }
+    }
+
+    private static boolean isFinished(long now,long start,long duration){
+        return now - start >= duration;
+    }
+
+    /**
+     * 阶段的进度,使用与ValueAnimator默认插值器(AccelerateDecelerateInterpolator)相同的曲线
+     */
+    private static float progress(long now,long start,long duration){
+        if(duration <= 0 || now - start >= duration){
+            return 1;
+        }
+        if(now <= start){
+            return 0;
+        }
+        float input = (float) (now - start) / duration;
+        return (float) (Math.cos((input + 1) * Math.PI) / 2.0f) + 0.5f;
+    }
+
+    private static float lerp(float from,float to,float fraction){
+        return from + fraction * (to - from);
+    }
+}
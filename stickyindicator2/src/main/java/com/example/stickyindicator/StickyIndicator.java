@@ -1,20 +1,19 @@
 package com.example.stickyindicator;
 
-import android.animation.Animator;
-import android.animation.AnimatorListenerAdapter;
-import android.animation.ValueAnimator;
 import android.content.Context;
+import android.content.res.Configuration;
 import android.content.res.TypedArray;
 import android.graphics.Canvas;
 import android.graphics.Color;
-import android.graphics.Paint;
-import android.graphics.Path;
-import android.graphics.PointF;
+import android.graphics.Rect;
+import android.graphics.drawable.Drawable;
+import android.os.Trace;
 import android.support.annotation.Nullable;
 import android.support.v4.view.ViewPager;
 import android.util.AttributeSet;
 import android.view.MotionEvent;
 import android.view.View;
+import android.view.ViewTreeObserver;
 
 /**
  * 创建时间:2018-7-21
@@ -24,398 +23,261 @@ public class StickyIndicator extends View{
     private final String Log = "StickyIndicator";
 
     /**
-     * 圆点风格,未选的圆点是实心的
+     * 动画模式,当前圆点/长条先弹出再弹回,每次切换都从头播放
      */
-    private final static int STYLE_POINT_FILL = 0;
+    public final static int ANIM_MODE_STICKY = 0;
 
     /**
-     * 圆点风格,未选的圆点是空心的
+     * 动画模式,当前圆点/长条由弹簧驱动,快速连续切换时保留当前的运动和速度
      */
-    private final static int STYLE_POINT_STROKE = 1;
+    public final static int ANIM_MODE_SPRING = 1;
 
-    /**
-     * 长条风格
-     */
-    private final static int STYLE_STRIP = 2;
-
-    /**
-     * 当前圆点/长条弹出时间
-     */
-    private final int DURATION_POINT = 300;
-
-    /**
-     * 当前圆点/长条弹回时间,
-     */
-    private final int DURATION_STICKY = 300;
-
-    /**
-     * 当前长条恢复为原来长度的时间
-     */
-    private final int DURATION_REBUILD = 300;
+    private boolean isIndicatorClickable;
 
     /**
-     * 闪光效果的时间
+     * 布局、绘制、点击判断和动画都由它完成,View只负责测量和转发
      */
-    private final int DURATION_FLASH = 300;
-
-    private int mColor;
-    private int mBackColor;
-    private int mCount;
-    private float mInterval;
-    private float mRadius;
-    private boolean allowAnim;
-    private int mStyle;
-    private float mStripWidth;
-    private float mStripHeight;
-    private boolean hideFlash;
-    private boolean hideBack;
-    private boolean isIndicatorClickable;
-
-    private float mFlashRadius;
-
-    private int mCurrentIndex;
-    private int mLastIndex;
-
-    private Paint mBackPaint;
-    private Paint mPaint;
-    private Paint mFlashPaint;
-
-    private PointF mPoint;
-    private PointF mStickyPoint;
-
-    private ValueAnimator mPointAnimator = ValueAnimator.ofFloat();
-    private ValueAnimator mStickyAnimator = ValueAnimator.ofFloat();
-    private ValueAnimator mRebuildAnimator = ValueAnimator.ofFloat();
-    private ValueAnimator mFlashAnimator = ValueAnimator.ofFloat();
-
-    private ValueAnimator.AnimatorUpdateListener mPointAnimatorLinstener = new ValueAnimator.AnimatorUpdateListener() {
-        @Override
-        public void onAnimationUpdate(ValueAnimator animation) {
-            mPoint.x = (float) animation.getAnimatedValue();
-            invalidate();
-        }
-    };
-
-    private ValueAnimator.AnimatorListener mPointEndListener = new AnimatorListenerAdapter() {
-        @Override
-        public void onAnimationEnd(Animator animation) {
-            //弹出动画结束后,开始播放弹回动画
-            runStickyAnim();
-        }
-    };
-
-    private ValueAnimator.AnimatorUpdateListener mStickyAnimatorLinstener = new ValueAnimator.AnimatorUpdateListener() {
-        @Override
-        public void onAnimationUpdate(ValueAnimator animation) {
-            mStickyPoint.x = (float) animation.getAnimatedValue();
-        }
-    };
-
-    private ValueAnimator.AnimatorListener mStickyEndListener = new AnimatorListenerAdapter() {
-        @Override
-        public void onAnimationEnd(Animator animation) {
-            if(mStyle == STYLE_STRIP){
-                //长条到达目的地后,开始播放恢复原状长度的动画
-                float startX = mPoint.x;
-                mRebuildAnimator.setFloatValues(startX,startX - mStripWidth / 2);
-                mRebuildAnimator.start();
-            }
-        }
-    };
-
-    private ValueAnimator.AnimatorUpdateListener mRebuildAnimatorLinstener = new ValueAnimator.AnimatorUpdateListener() {
-        @Override
-        public void onAnimationUpdate(ValueAnimator animation) {
-            mPoint.x = (float) animation.getAnimatedValue();
-            //+1是为了避免Canvas.drawLine()绘制一条长度为0的线段
-            float currentStripWidth = (mStripWidth / 2 + getCurrentPointX() - mPoint.x ) * 2 + 1;
-            mStickyPoint.x = mPoint.x + currentStripWidth;
-            invalidate();
-        }
-    };
-
-    private ValueAnimator.AnimatorUpdateListener mFlashAnimatorLinstener = new ValueAnimator.AnimatorUpdateListener() {
-        @Override
-        public void onAnimationUpdate(ValueAnimator animation) {
-            //通过改变圆环的半径和厚度来实现闪光的效果
-            float value = (float) animation.getAnimatedValue();
-            if(mStyle == STYLE_STRIP){
-                if(value < mStripHeight / 2 * 1.7f){
-                    mFlashRadius = value;
-                }else if(value == mStripHeight){
-                    mFlashRadius = 0;
-                }
-                mFlashPaint.setStrokeWidth(mStripHeight / 2 * 1.5f - value * 0.75f);
-            }else{
-                if(value < mRadius * 1.7f){
-                    mFlashRadius = value;
-                }else if(value == mRadius * 2f){
-                    mFlashRadius = 0;
-                }
-                mFlashPaint.setStrokeWidth(mRadius * 1.5f - value * 0.75f);
-            }
-            invalidate();
-        }
-    };
-
+    private StickyIndicatorDrawable mDrawable;
 
     private ViewPager.OnPageChangeListener mOnPageChangeListener = new ViewPager.OnPageChangeListener() {
-        private float mLastPositionOffset = 0;
-
         @Override
         public void onPageScrolled(int position, float positionOffset, int positionOffsetPixels) {
-            if(!mStickyAnimator.isRunning() && allowAnim){
-                boolean rightScroll = (positionOffset - mLastPositionOffset) >= 0;
-
-                if(rightScroll){
-                    mPoint.x = getPostionX(position) + positionOffset * (mInterval + mStripWidth);
-                }else{
-                    mPoint.x = getPostionX(position) - positionOffset * (mInterval + mStripWidth);
-                }
-                invalidate();
-            }
+            setPositionOffset(position,positionOffset);
         }
 
         @Override
         public void onPageSelected(int position) {
-            if(mCurrentIndex != position){
+            if(mDrawable.getCurrentPosition() != position){
                 setPosition(position);
             }
         }
 
         @Override
         public void onPageScrollStateChanged(int state) {
+            setScrolling(state != ViewPager.SCROLL_STATE_IDLE);
         }
     };
 
-    private Context mContext;
-
     private IndicatorListener mIndicatorListener;
 
+    /**
+     * 最近一次测量使用的MeasureSpec,数量等变化时先用它们重新计算,尺寸不变就不需要重新布局
+     */
+    private int mWidthMeasureSpec;
+    private int mHeightMeasureSpec;
+    private boolean hasMeasured;
+
     public StickyIndicator(Context context) {
-        this(context,null);
+        this(context,(AttributeSet) null);
     }
 
     public StickyIndicator(Context context, @Nullable AttributeSet attrs) {
         super(context, attrs);
 
-        mContext = context;
-
         TypedArray typedArray = context.obtainStyledAttributes(attrs, R.styleable.StickyIndicator);
-        mColor = typedArray.getColor(R.styleable.StickyIndicator_color, Color.RED);
-        mBackColor = typedArray.getColor(R.styleable.StickyIndicator_backColor,Color.LTGRAY);
-        mCount = typedArray.getInteger(R.styleable.StickyIndicator_count,1);
-        mRadius = typedArray.getDimension(R.styleable.StickyIndicator_radius,ScreenUtil.dipTopx(mContext,10));
-        mInterval = typedArray.getDimension(R.styleable.StickyIndicator_interval,mRadius * 2);
-        allowAnim = typedArray.getBoolean(R.styleable.StickyIndicator_allowAnim,true);
-        mStyle = typedArray.getInt(R.styleable.StickyIndicator_style, STYLE_POINT_FILL);
-        mStripWidth = typedArray.getDimension(R.styleable.StickyIndicator_stripWidth,ScreenUtil.dipTopx(mContext,30));
-        mStripHeight = typedArray.getDimension(R.styleable.StickyIndicator_stripHeight,10);
-        hideFlash = typedArray.getBoolean(R.styleable.StickyIndicator_hideFlash,false);
-        hideBack = typedArray.getBoolean(R.styleable.StickyIndicator_hideBack,false);
-        mCurrentIndex = typedArray.getInt(R.styleable.StickyIndicator_currentIndex,0);
+        init(new StickyIndicatorDrawable(context,readStyle(context,typedArray),false));
+        mDrawable.edit()
+                .setCount(typedArray.getInteger(R.styleable.StickyIndicator_count,1))
+                .setMaxVisibleCount(typedArray.getInteger(R.styleable.StickyIndicator_maxVisibleCount,0))
+                .setPosition(typedArray.getInt(R.styleable.StickyIndicator_currentIndex,0))
+                .apply();
+        mDrawable.cacheBack(typedArray.getBoolean(R.styleable.StickyIndicator_cacheBack,false));
+        mDrawable.setAdaptiveQuality(typedArray.getBoolean(R.styleable.StickyIndicator_adaptiveQuality,false));
         isIndicatorClickable = typedArray.getBoolean(R.styleable.StickyIndicator_indicatorClickable,false);
         typedArray.recycle();
+    }
 
-        mBackPaint = new Paint();
-        mBackPaint.setAlpha(250);
-        mBackPaint.setAntiAlias(true);
-        mBackPaint.setStrokeCap(Paint.Cap.ROUND);
-        setBackColor(mBackColor);
-
-        mPaint = new Paint();
-        mPaint.setAlpha(250);
-        mPaint.setAntiAlias(true);
-        mPaint.setStrokeCap(Paint.Cap.ROUND);
-        setColor(mColor);
-
-        mFlashPaint = new Paint();
-        mFlashPaint.setColor(250);
-        mFlashPaint.setAntiAlias(true);
-        mFlashPaint.setColor(Color.WHITE);
-        mFlashPaint.setStyle(Paint.Style.STROKE);
-
-        mPoint = new PointF();
-        mStickyPoint = new PointF();
-
-        mPointAnimator.addUpdateListener(mPointAnimatorLinstener);
-        mPointAnimator.addListener(mPointEndListener);
+    /**
+     * 从XML属性中读取外观配置,{@link StickyIndicatorTextureView}也使用同样的属性
+     * @param context
+     * @param typedArray {@link R.styleable#StickyIndicator}
+     */
+    static IndicatorStyle readStyle(Context context,TypedArray typedArray){
+        IndicatorStyle.Builder builder = new IndicatorStyle.Builder(context);
+        builder.setColor(typedArray.getColor(R.styleable.StickyIndicator_color, Color.RED));
+        builder.setBackColor(typedArray.getColor(R.styleable.StickyIndicator_backColor,Color.LTGRAY));
+        float radius = typedArray.getDimension(R.styleable.StickyIndicator_radius,ScreenUtil.dipTopx(context,10));
+        builder.setRadius(radius);
+        builder.setInterval(typedArray.getDimension(R.styleable.StickyIndicator_interval,radius * 2));
+        builder.allowAnim(typedArray.getBoolean(R.styleable.StickyIndicator_allowAnim,true));
+        builder.setAnimMode(typedArray.getInt(R.styleable.StickyIndicator_animMode,ANIM_MODE_STICKY));
+        builder.setStyle(typedArray.getInt(R.styleable.StickyIndicator_style, IndicatorStyle.STYLE_FILL));
+        builder.setStripWidth(typedArray.getDimension(R.styleable.StickyIndicator_stripWidth,ScreenUtil.dipTopx(context,30)));
+        builder.setStripHeight(typedArray.getDimension(R.styleable.StickyIndicator_stripHeight,10));
+        builder.hideFlash(typedArray.getBoolean(R.styleable.StickyIndicator_hideFlash,false));
+        builder.hideBack(typedArray.getBoolean(R.styleable.StickyIndicator_hideBack,false));
+        builder.useMetaball(typedArray.getBoolean(R.styleable.StickyIndicator_metaball,false));
+        builder.setRenderProfiles(typedArray.getInt(R.styleable.StickyIndicator_idleRender,IndicatorStyle.RENDER_FULL),
+                typedArray.getInt(R.styleable.StickyIndicator_scrollRender,IndicatorStyle.RENDER_FULL));
+        return builder.build();
+    }
 
-        mFlashAnimator.addUpdateListener(mFlashAnimatorLinstener);
+    /**
+     * 使用共享的外观配置创建指示器,不解析任何XML属性,适合在列表中大量创建
+     * @param context
+     * @param style 可以被多个指示器共享
+     */
+    public StickyIndicator(Context context, IndicatorStyle style) {
+        super(context);
 
-        mStickyAnimator.addUpdateListener(mStickyAnimatorLinstener);
-        mStickyAnimator.addListener(mStickyEndListener);
+        init(new StickyIndicatorDrawable(context,style,true));
+    }
 
-        mRebuildAnimator.addUpdateListener(mRebuildAnimatorLinstener);
+    private void init(StickyIndicatorDrawable drawable){
+        mDrawable = drawable;
+        mDrawable.setLayoutCallback(new StickyIndicatorDrawable.LayoutCallback() {
+            @Override
+            public void onLayoutChanged() {
+                updateLayout();
+            }
+        });
+        //离开窗口时不驱动动画
+        mDrawable.setVisible(false,false);
+        mDrawable.setCallback(this);
+    }
 
-        allowAnim(allowAnim);
+    /**
+     * 获取绘制指示器的Drawable,可以直接设置其外观和位置
+     */
+    public StickyIndicatorDrawable getDrawable(){
+        return mDrawable;
     }
 
     @Override
     protected void onMeasure(int widthMeasureSpec, int heightMeasureSpec) {
         super.onMeasure(widthMeasureSpec, heightMeasureSpec);
 
-        if(mStyle == STYLE_STRIP){
-            onMeasureStrip(widthMeasureSpec,heightMeasureSpec);
-        }else{
-            onMeasurePoint(widthMeasureSpec,heightMeasureSpec);
+        final IndicatorMetrics metrics = mDrawable.getMetrics();
+        if(metrics != null){
+            Trace.beginSection("StickyIndicator#onMeasure");
+            metrics.onMeasure();
         }
-    }
 
-    private void onMeasurePoint(int widthMeasureSpec, int heightMeasureSpec){
-        int widthMode = MeasureSpec.getMode(widthMeasureSpec);
-        int width = MeasureSpec.getSize(widthMeasureSpec);
-        int heightMode = MeasureSpec.getMode(heightMeasureSpec);
-        int height = MeasureSpec.getSize(heightMeasureSpec);
+        mWidthMeasureSpec = widthMeasureSpec;
+        mHeightMeasureSpec = heightMeasureSpec;
+        hasMeasured = true;
+        measureDrawable();
 
-        if(widthMode == MeasureSpec.AT_MOST){
-            width = (int) (mCount * (mRadius * 2 + mInterval));
-        }else{
-            if(mRadius * 2 * mCount > width){
-                mRadius = width / mCount / 2;
-            }
-            mInterval = width / mCount - mRadius * 2;
-        }
+        setMeasuredDimension(mDrawable.getMeasuredWidth(),mDrawable.getMeasuredHeight());
 
-        if(heightMode == MeasureSpec.AT_MOST){
-            height = (int) (mRadius * 2 * 1.5f);
-        }else{
-            if(height < mRadius * 2 * 1.5f){
-                height = (int) (mRadius * 2 * 1.5f);
-            }
-        }
-
-        mPoint.x = getCurrentPointX();
-        mPoint.y = height / 2;
-
-        mStickyPoint.x = mPoint.x;
-        mStickyPoint.y = height / 2;
-
-        if(mStyle == STYLE_POINT_STROKE){
-            mBackPaint.setStyle(Paint.Style.STROKE);
-            mBackPaint.setStrokeWidth(mRadius * 0.3f);
+        if(metrics != null){
+            Trace.endSection();
         }
-
-        setMeasuredDimension(width,height);
     }
 
-    private void onMeasureStrip(int widthMeasureSpec, int heightMeasureSpec){
-        int widthMode = MeasureSpec.getMode(widthMeasureSpec);
-        int width = MeasureSpec.getSize(widthMeasureSpec);
-        int heightMode = MeasureSpec.getMode(heightMeasureSpec);
-        int height = MeasureSpec.getSize(heightMeasureSpec);
+    /**
+     * 重复的测量由渲染器的缓存直接返回,只有几何参数变化时才更新画笔和未选圆点/长条的图层
+     */
+    private void measureDrawable(){
+        mDrawable.measure(MeasureSpec.getMode(mWidthMeasureSpec) == MeasureSpec.AT_MOST,
+                MeasureSpec.getSize(mWidthMeasureSpec),
+                MeasureSpec.getMode(mHeightMeasureSpec) == MeasureSpec.AT_MOST,
+                MeasureSpec.getSize(mHeightMeasureSpec));
+    }
 
-        if(widthMode == MeasureSpec.AT_MOST){
-            width = (int) ((mStripWidth + mInterval) * mCount);
-        }else{
-            if(mStripWidth > width / mCount){
-                mStripWidth = width / mCount;
-            }
-            mInterval = width / mCount - mStripWidth;
+    /**
+     * 数量、窗口大小或外观变化后重新计算布局
+     * 先用上一次的MeasureSpec重新测量,只有测量结果的尺寸变化时才调用requestLayout(),
+     * 例如宽度为固定值时增减圆点/长条不会引起父布局重新布局
+     */
+    private void updateLayout(){
+        if(!hasMeasured || isLayoutRequested()){
+            requestLayout();
+            return;
         }
 
-        if(heightMode == MeasureSpec.AT_MOST){
-            height = (int) (mStripHeight * 1.5f);
-        }else{
-            if(height < mStripHeight * 1.5f){
-                height = (int) (mStripHeight * 1.5f);
-            }
+        measureDrawable();
+        if(mDrawable.getMeasuredWidth() != getMeasuredWidth() ||
+                mDrawable.getMeasuredHeight() != getMeasuredHeight()){
+            requestLayout();
         }
+    }
 
-        mPoint.x = getCurrentPointX();
-        mPoint.y = height / 2;
-
-        mStickyPoint.x = mPoint.x + mStripWidth;
-        mStickyPoint.y = height / 2;
-
-        mPaint.setStyle(Paint.Style.STROKE);
-        mPaint.setStrokeWidth(mStripHeight);
-        mBackPaint.setStrokeWidth(mStripHeight);
-
-        setMeasuredDimension(width,height);
+    @Override
+    protected void onSizeChanged(int w, int h, int oldw, int oldh) {
+        super.onSizeChanged(w, h, oldw, oldh);
+        mDrawable.setBounds(0,0,w,h);
     }
 
     @Override
     protected void onDraw(Canvas canvas) {
-        if(mStyle == STYLE_STRIP){
-            drawOnStripStyle(canvas);
-        }else{
-            drawOnPointStyle(canvas);
-        }
+        mDrawable.draw(canvas);
     }
 
-    private void drawOnPointStyle(Canvas canvas){
-        if(!hideBack) {
-            onDrawPointBack(canvas);
-        }
-
-        if(!hideFlash) {
-            onDrawPointFlash(canvas);
-        }
-
-        onDrawPoint(canvas);
+    @Override
+    protected boolean verifyDrawable(Drawable who) {
+        return who == mDrawable || super.verifyDrawable(who);
     }
 
-    private void onDrawPointBack(Canvas canvas){
-        int x;
-        final int y = getHeight() / 2;
-        for(int i = 0;i < mCount;i++){
-            x = (int) (mInterval / 2 + mRadius + i * (mInterval + mRadius * 2));
-            canvas.drawCircle(x,y,mRadius,mBackPaint);
-        }
+    @Override
+    protected void onConfigurationChanged(Configuration newConfig) {
+        super.onConfigurationChanged(newConfig);
+        mDrawable.updateClickSlop(getContext());
     }
 
-    private void onDrawPoint(Canvas canvas){
-        canvas.drawCircle(mPoint.x,mPoint.y,mRadius,mPaint);
-        canvas.drawCircle(mStickyPoint.x,mStickyPoint.y,mRadius,mPaint);
+    @Override
+    protected void onAttachedToWindow() {
+        super.onAttachedToWindow();
+        final ViewTreeObserver observer = getViewTreeObserver();
+        observer.addOnScrollChangedListener(mOnScreenListener);
+        observer.addOnGlobalLayoutListener(mOnScreenListener);
+        updateDrawableVisible();
+    }
 
-        Path path = new Path();
-        path.reset();
-        path.moveTo(mStickyPoint.x,mStickyPoint.y - mRadius);
-        path.quadTo(mStickyPoint.x + (mPoint.x - mStickyPoint.x) / 2,
-                mStickyPoint.y,
-                mPoint.x,
-                mPoint.y - mRadius);
-        path.lineTo(mPoint.x,mStickyPoint.y + mRadius);
-        path.quadTo(mStickyPoint.x + (mPoint.x - mStickyPoint.x) / 2,
-                mStickyPoint.y,
-                mStickyPoint.x,
-                mStickyPoint.y + mRadius);
-        path.lineTo(mStickyPoint.x,mStickyPoint.y - mRadius);
-        canvas.drawPath(path,mPaint);
+    @Override
+    protected void onDetachedFromWindow() {
+        super.onDetachedFromWindow();
+        final ViewTreeObserver observer = getViewTreeObserver();
+        observer.removeOnScrollChangedListener(mOnScreenListener);
+        observer.removeOnGlobalLayoutListener(mOnScreenListener);
+        mDrawable.setVisible(false,false);
     }
 
-    private void onDrawPointFlash(Canvas canvas){
-        canvas.drawCircle(getLastPointX(),getHeight() / 2,mFlashRadius,mFlashPaint);
+    @Override
+    protected void onVisibilityChanged(View changedView, int visibility) {
+        super.onVisibilityChanged(changedView, visibility);
+        updateDrawableVisible();
     }
 
-    private void drawOnStripStyle(Canvas canvas){
-        if(!hideBack) {
-            onDrawStripBack(canvas);
-        }
+    @Override
+    protected void onWindowVisibilityChanged(int visibility) {
+        super.onWindowVisibilityChanged(visibility);
+        updateDrawableVisible();
+    }
 
-        if(!hideFlash) {
-            onDrawStripFlash(canvas);
+    /**
+     * 任意父布局滑动或重新布局后,重新检查指示器是否还在屏幕上
+     */
+    private final class OnScreenListener implements ViewTreeObserver.OnScrollChangedListener,
+            ViewTreeObserver.OnGlobalLayoutListener {
+        @Override
+        public void onScrollChanged() {
+            updateDrawableVisible();
         }
 
-        onDrawStrip(canvas);
-    }
-
-    private void onDrawStripBack(Canvas canvas){
-        int x;
-        final int y = getHeight() / 2;
-        for(int i = 0;i < mCount;i++){
-            x = (int) (mInterval / 2 + i * (mStripWidth + mInterval));
-            canvas.drawLine(x,y,x + mStripWidth,y,mBackPaint);
+        @Override
+        public void onGlobalLayout() {
+            updateDrawableVisible();
         }
     }
 
-    private void onDrawStrip(Canvas canvas){
-        canvas.drawLine(mPoint.x,mPoint.y,mStickyPoint.x,mStickyPoint.y,mPaint);
-    }
+    private final OnScreenListener mOnScreenListener = new OnScreenListener();
+    private final Rect mVisibleRect = new Rect();
 
-    private void onDrawStripFlash(Canvas canvas){
-        canvas.drawCircle(getLastPointX() + mStripWidth,getHeight() / 2,mFlashRadius,mFlashPaint);
+    /**
+     * 自身、所有父布局和窗口都可见,并且至少有一部分在屏幕上时才驱动动画,
+     * 被隐藏的指示器(例如被覆盖的Fragment、进入后台的Activity、滑出ScrollView的可见区域)不占用CPU
+     */
+    private void updateDrawableVisible(){
+        if(mDrawable == null){
+            //父类构造方法中可能回调
+            return;
+        }
+        final boolean visible = isAttachedToWindow() && getWindowVisibility() == VISIBLE && isShown()
+                && getGlobalVisibleRect(mVisibleRect);
+        if(visible != mDrawable.isVisible()){
+            mDrawable.setVisible(visible,false);
+        }
     }
 
     private int downOnPosition;
@@ -431,14 +293,14 @@ public class StickyIndicator extends View{
 
         switch(event.getAction()){
             case MotionEvent.ACTION_DOWN:
-                downOnPosition = pointerOnPosition(eventX,eventY);
+                downOnPosition = mDrawable.getPositionAt(eventX,eventY);
                 if(downOnPosition == -1){
                     return false;
                 }
                 break;
 
             case MotionEvent.ACTION_UP:
-                if(pointerOnPosition(eventX,eventY) == downOnPosition &&
+                if(mDrawable.getPositionAt(eventX,eventY) == downOnPosition &&
                         mIndicatorListener != null){
                     mIndicatorListener.onIndicatorClicked(downOnPosition);
                 }
@@ -448,190 +310,168 @@ public class StickyIndicator extends View{
         return super.onTouchEvent(event);
     }
 
-    private int pointerOnPosition(float x, float y){
-        final int dp_1 = ScreenUtil.dipTopx(mContext,1);
+    /**
+     * 设置当前圆点/长条的位置,并回调{@link IndicatorListener#onIndicatorSelected(int)}
+     * @see StickyIndicatorDrawable#setPosition(int)
+     */
+    public void setPosition(int newPosition){
+        mDrawable.setPosition(newPosition);
 
-        if(mStyle == STYLE_STRIP){
-            for(int i = 0;i < mCount;i++){
-                final float startX = getPostionX(i);
-                final float centerY = getHeight() / 2;
-                //dp_1用于增加2dp点击范围
-                if(x >= startX - dp_1 && x <= startX + mStripWidth + dp_1 &&
-                        y >= centerY - mStripHeight / 2 - dp_1 && y <= centerY + mStripHeight / 2 + dp_1){
-                    return i;
-                }
-            }
-        }else{
-            for(int i = 0;i < mCount;i++){
-                final float centerX = getPostionX(i);
-                final float centerY = getHeight() / 2;
-                //dp_1用于增加2dp点击范围
-                if(x >= centerX - mRadius - dp_1 && x <= centerX + mRadius + dp_1 &&
-                        y >= centerY - mRadius - dp_1 && y <= centerY + mRadius + dp_1){
-                    return i;
-                }
-            }
+        if(mIndicatorListener != null){
+            mIndicatorListener.onIndicatorSelected(mDrawable.getCurrentPosition());
         }
-
-        return -1;
     }
 
-    private void runAnim(){
-        if(mStyle == STYLE_STRIP){
-            mPointAnimator.setFloatValues(mPoint.x,getCurrentPointX() + mStripWidth / 2);
-        }else{
-            mPointAnimator.setFloatValues(mPoint.x,getCurrentPointX());
-        }
-
-        //提前结束上一次的弹回动画和恢复动画,避免与本次的动画冲突
-        if(mStickyAnimator.isRunning()){
-            mStickyAnimator.end();
-        }
-
-        if(mRebuildAnimator.isRunning()){
-            mRebuildAnimator.end();
-        }
+    /**
+     * @see StickyIndicatorDrawable#setPositionOffset(int, float)
+     */
+    public void setPositionOffset(int position, float offset){
+        mDrawable.setPositionOffset(position,offset);
+    }
 
-        mPointAnimator.start();
+    /**
+     * @see StickyIndicatorDrawable#getCurrentPosition()
+     */
+    public int getCurrentPosition(){
+        return mDrawable.getCurrentPosition();
     }
 
-    private void runStickyAnim(){
-        //提前结束上一次的恢复动画,避免与本次的动画冲突
-        if(mRebuildAnimator.isRunning()){
-            mRebuildAnimator.end();
-        }
+    /**
+     * @see StickyIndicatorDrawable#hideBack(boolean)
+     */
+    public void hideBack(boolean hide){
+        mDrawable.hideBack(hide);
+    }
 
-        mStickyAnimator.setFloatValues(mStickyPoint.x,mPoint.x + 1);
-        mStickyAnimator.start();
+    /**
+     * @see StickyIndicatorDrawable#cacheBack(boolean)
+     */
+    public void cacheBack(boolean cache){
+        mDrawable.cacheBack(cache);
+    }
 
-        float endValue;
-        if(mStyle == STYLE_STRIP)
-            endValue = mStripHeight;
-        else
-            endValue = mRadius * 2;
+    /**
+     * @see StickyIndicatorDrawable#hideFlash(boolean)
+     */
+    public void hideFlash(boolean hide){
+        mDrawable.hideFlash(hide);
+    }
 
-        mFlashAnimator.setFloatValues(0,endValue);
-        mFlashAnimator.start();
+    /**
+     * @see StickyIndicatorDrawable#allowAnim(boolean)
+     */
+    public void allowAnim(boolean allow){
+        mDrawable.allowAnim(allow);
     }
 
     /**
-     * 若为圆点风格,则获取当前圆点圆心的X坐标
-     * 若为长条风格,在获取当前长条的起始X坐标
-     * @return
+     * @see StickyIndicatorDrawable#setAnimMode(int)
      */
-    private float getCurrentPointX(){
-        return getPostionX(mCurrentIndex);
+    public void setAnimMode(int mode){
+        mDrawable.setAnimMode(mode);
     }
 
     /**
-     * 若为圆点风格,则获取指定位置圆点圆心的X坐标
-     * 若为长条风格,在获取指定位置长条的起始X坐标
-     * @param index
-     * @return
+     * @see StickyIndicatorDrawable#useMetaball(boolean)
      */
-    private float getPostionX(int index){
-        if(index > mCount - 1 || index < 0)
-            return -1;
+    public void useMetaball(boolean use){
+        mDrawable.useMetaball(use);
+    }
 
-        float destX;
-        if(mStyle == STYLE_STRIP){
-            destX = mInterval / 2 + index * (mStripWidth + mInterval);
-        }else{
-            destX = mInterval / 2 + mRadius + index * (mRadius * 2 + mInterval);
-        }
-        return destX;
+    /**
+     * @see StickyIndicatorDrawable#setIndicatorStyle(IndicatorStyle)
+     */
+    public void setIndicatorStyle(IndicatorStyle style){
+        mDrawable.setIndicatorStyle(style);
     }
 
-    private float getLastPointX(){
-        return getPostionX(mLastIndex);
+    /**
+     * @see StickyIndicatorDrawable#getIndicatorStyle()
+     */
+    @Nullable
+    public IndicatorStyle getIndicatorStyle(){
+        return mDrawable.getIndicatorStyle();
     }
 
     /**
-     * 设置当前圆点/长条的位置
-     * @param newPosition
+     * @see StickyIndicatorDrawable#setFrameClock(FrameClock)
      */
-    public void setPosition(int newPosition){
-        if(newPosition >= mCount){
-            newPosition = mCount - 1;
-        }
+    public void setFrameClock(FrameClock clock){
+        mDrawable.setFrameClock(clock);
+    }
 
-        if(newPosition < 0){
-            newPosition = 0;
-        }
+    public FrameClock getFrameClock(){
+        return mDrawable.getFrameClock();
+    }
 
-        mLastIndex = mCurrentIndex;
-        mCurrentIndex = newPosition;
+    /**
+     * @see StickyIndicatorDrawable#setRenderProfiles(int, int)
+     */
+    public void setRenderProfiles(int idle,int scroll){
+        mDrawable.setRenderProfiles(idle,scroll);
+    }
 
-        if(mIndicatorListener != null){
-            mIndicatorListener.onIndicatorSelected(newPosition);
-        }
+    /**
+     * 通知滑动状态,使用ViewPager时由{@link #getOnPageChangeListener()}自动调用,
+     * 其他滑动控件在滑动状态变化时调用
+     * @see StickyIndicatorDrawable#setScrolling(boolean)
+     */
+    public void setScrolling(boolean scrolling){
+        mDrawable.setScrolling(scrolling);
+    }
 
-        runAnim();
+    /**
+     * @see StickyIndicatorDrawable#setScrollFrameRate(int)
+     */
+    public void setScrollFrameRate(int fps){
+        mDrawable.setScrollFrameRate(fps);
     }
 
     /**
-     * 获取当前圆点/长条的位置
-     * @return
+     * @see StickyIndicatorDrawable#setMetricsEnabled(boolean)
      */
-    public int getCurrentPosition(){
-        return mCurrentIndex;
+    public void setMetricsEnabled(boolean enabled){
+        mDrawable.setMetricsEnabled(enabled);
     }
 
     /**
-     * 是否隐藏未选的圆点/长条
-     * @param hide
+     * @see StickyIndicatorDrawable#getMetrics()
      */
-    public void hideBack(boolean hide){
-        hideBack = hide;
+    @Nullable
+    public IndicatorMetrics getMetrics(){
+        return mDrawable.getMetrics();
     }
 
     /**
-     * 是否隐藏闪光效果
-     * @param hide
+     * @see StickyIndicatorDrawable#setAdaptiveQuality(boolean)
      */
-    public void hideFlash(boolean hide){
-        hideFlash = hide;
+    public void setAdaptiveQuality(boolean enabled){
+        mDrawable.setAdaptiveQuality(enabled);
+    }
+
+    public boolean isAdaptiveQuality(){
+        return mDrawable.isAdaptiveQuality();
     }
 
     /**
-     * 是否播放弹性动画
-     * @param allow
+     * @see StickyIndicatorDrawable#setMaxVisibleCount(int)
      */
-    public void allowAnim(boolean allow){
-        allowAnim = allow;
-        setAnimDuration(allow);
-    }
-
-    private void setAnimDuration(boolean allowAnim){
-        if(allowAnim){
-            mPointAnimator.setDuration(DURATION_POINT);
-            mStickyAnimator.setDuration(DURATION_STICKY);
-            mRebuildAnimator.setDuration(DURATION_REBUILD);
-            mFlashAnimator.setDuration(DURATION_FLASH);
-        }else{
-            mPointAnimator.setDuration(0);
-            mStickyAnimator.setDuration(0);
-            mRebuildAnimator.setDuration(0);
-            mFlashAnimator.setDuration(0);
-        }
+    public void setMaxVisibleCount(int maxVisibleCount){
+        mDrawable.setMaxVisibleCount(maxVisibleCount);
     }
 
     /**
-     * 设置当前圆点/长条的颜色
-     * @param color
+     * @see StickyIndicatorDrawable#setColor(int)
      */
     public void setColor(int color){
-        mColor = color;
-        mPaint.setColor(color);
+        mDrawable.setColor(color);
     }
 
     /**
-     * 设置未选的圆点/长条的颜色
-     * @param color
+     * @see StickyIndicatorDrawable#setBackColor(int)
      */
     public void setBackColor(int color){
-        mBackColor = color;
-        mBackPaint.setColor(color);
+        mDrawable.setBackColor(color);
     }
 
     /**
@@ -657,8 +497,7 @@ public class StickyIndicator extends View{
      * @param num
      */
     public void addIndicator(int num){
-        mCount += num;
-        requestLayout();
+        mDrawable.setCount(mDrawable.getCount() + num);
     }
 
     /**
@@ -666,16 +505,36 @@ public class StickyIndicator extends View{
      * @param num
      */
     public void removeIndicator(int num){
-        mCount -= num;
-        if(mCount < 0){
-            throw new IllegalArgumentException("indicator count < 0");
-        }
+        mDrawable.setCount(mDrawable.getCount() - num);
+    }
 
-        if(mCurrentIndex >= mCount){
-            mCurrentIndex = mCount - 1;
-        }
+    /**
+     * 绑定数量和位置,适合在RecyclerView的onBindViewHolder()中调用
+     * 直接跳到指定位置,不播放动画,也不回调{@link IndicatorListener#onIndicatorSelected(int)}
+     * @param count 圆点/长条的数量
+     * @param position 当前位置
+     */
+    public void bind(int count, int position){
+        edit().setCount(count).setPosition(position).apply();
+    }
 
-        requestLayout();
+    /**
+     * 绑定数量、位置和外观配置
+     * @param count 圆点/长条的数量
+     * @param position 当前位置
+     * @param style 共享的外观配置
+     * @see #bind(int, int)
+     */
+    public void bind(int count, int position, IndicatorStyle style){
+        edit().setIndicatorStyle(style).setCount(count).setPosition(position).apply();
+    }
+
+    /**
+     * 开始批量修改,只有尺寸变化时才会重新布局
+     * @see StickyIndicatorDrawable#edit()
+     */
+    public StickyIndicatorDrawable.Editor edit(){
+        return mDrawable.edit();
     }
 
     /**
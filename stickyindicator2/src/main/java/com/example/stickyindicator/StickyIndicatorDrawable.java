@@ -0,0 +1,1019 @@
+package com.example.stickyindicator;
+
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.ColorFilter;
+import android.graphics.Paint;
+import android.graphics.PixelFormat;
+import android.graphics.Rect;
+import android.graphics.drawable.Drawable;
+import android.os.Trace;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+/**
+ * 不需要单独View的弹性指示器
+ * 可以作为已有View的前景/背景,或在RecyclerView.ItemDecoration中绘制,
+ * 动画通过{@link Drawable.Callback}驱动,每一帧只重绘当前圆点/长条经过的区域({@link #getDirtyBounds()})。
+ * 以{@link #getBounds()}为绘制区域,尺寸变化时按该区域重新布局圆点/长条,
+ * 自适应的尺寸由{@link #getIntrinsicWidth()}和{@link #getIntrinsicHeight()}给出。
+ * {@link StickyIndicator}是它的一个View包装
+ */
+public class StickyIndicatorDrawable extends Drawable {
+    private int mColor;
+    private int mBackColor;
+    private int mAlpha = 255;
+    private boolean cacheBack;
+
+    private Paint mBackPaint;
+    private Paint mPaint;
+    private Paint mFlashPaint;
+
+    /**
+     * 缓存未选圆点/长条的图层,只在布局、颜色或数量变化时重新绘制
+     */
+    private Bitmap mBackBitmap;
+    private Canvas mBackCanvas;
+    private boolean isBackDirty = true;
+
+    /**
+     * 上一次绘制时当前圆点/长条和闪光圆环所占的区域,以及本次需要重绘的区域,相对于{@link #getBounds()}的左上角
+     */
+    private Rect mDrawnMotionRect = new Rect();
+    private Rect mMotionRect = new Rect();
+    private float[] mMotionBounds = new float[4];
+
+    /**
+     * 只重绘运动区域时由{@link #getDirtyBounds()}返回
+     */
+    private Rect mDirtyRect = new Rect();
+    private boolean isMotionDirty;
+
+    /**
+     * 本次绘制的裁剪区域
+     */
+    private Rect mClipRect = new Rect();
+
+    /**
+     * 布局、绘制、点击判断和动画都由它完成
+     */
+    private IndicatorRenderer mRenderer = new IndicatorRenderer();
+
+    private AndroidIndicatorCanvas mIndicatorCanvas;
+
+    /**
+     * 共享的外观配置,未使用共享配置时为null
+     */
+    private IndicatorStyle mIndicatorStyle;
+
+    /**
+     * 动画播放期间注册到帧时钟,每一帧只回调一次,也只重绘一次
+     * 默认使用所有指示器共享的、与屏幕刷新同步的时钟
+     */
+    private FrameClock mFrameClock = IndicatorTicker.getInstance();
+    private boolean isTicking;
+
+    private FrameClock.Callback mFrameCallback = new FrameClock.Callback() {
+        @Override
+        public void onFrame(long frameTimeMillis) {
+            final IndicatorMetrics metrics = mMetrics;
+            if(metrics != null){
+                Trace.beginSection("StickyIndicator#tick");
+            }
+
+            if(!mRenderer.tick(frameTimeMillis)){
+                stopTicking();
+            }
+            invalidateMotion();
+
+            if(metrics != null){
+                Trace.endSection();
+            }
+        }
+    };
+
+    /**
+     * 最新的滑动位置,同一帧内的多次滑动只在绘制开始时计算一次
+     */
+    private PendingScroll mPendingScroll = new PendingScroll(mFrameClock,new PendingScroll.Callback() {
+        @Override
+        public void onScrollDue(int position, float offset) {
+            invalidateScroll(position,offset);
+        }
+    });
+
+    /**
+     * 由宿主View测量时,布局变化交给宿主处理,不再按绘制区域重新测量
+     */
+    interface LayoutCallback {
+        void onLayoutChanged();
+    }
+
+    private LayoutCallback mLayoutCallback;
+
+    /**
+     * 点击范围向外扩展的距离(1dp)
+     */
+    private int mClickSlop;
+
+    /**
+     * 性能统计,未开启时为null,热路径上只多一次判空
+     */
+    private IndicatorMetrics mMetrics;
+
+    /**
+     * 根据绘制耗时自动调整绘制质量,未开启时为null
+     */
+    private QualityGovernor mQualityGovernor;
+
+    /**
+     * 复用的批量修改对象
+     */
+    private Editor mEditor;
+
+    /**
+     * 使用默认的外观配置
+     * @param context
+     */
+    public StickyIndicatorDrawable(Context context){
+        this(context,new IndicatorStyle.Builder(context).build(),false);
+    }
+
+    /**
+     * @param context
+     * @param style 可以被多个指示器共享
+     */
+    public StickyIndicatorDrawable(Context context, IndicatorStyle style){
+        this(context,style,true);
+    }
+
+    /**
+     * @param shared 是否为共享的外观配置,否则只应用其中的值,{@link #getIndicatorStyle()}返回null
+     */
+    StickyIndicatorDrawable(Context context, IndicatorStyle style, boolean shared){
+        mClickSlop = ScreenUtil.dipTopx(context,1);
+
+        mBackPaint = new Paint();
+        mBackPaint.setAlpha(250);
+        mBackPaint.setAntiAlias(true);
+        mBackPaint.setStrokeCap(Paint.Cap.ROUND);
+
+        mPaint = new Paint();
+        mPaint.setAlpha(250);
+        mPaint.setAntiAlias(true);
+        mPaint.setStrokeCap(Paint.Cap.ROUND);
+
+        mFlashPaint = new Paint();
+        mFlashPaint.setAntiAlias(true);
+        mFlashPaint.setColor(Color.WHITE);
+        mFlashPaint.setStyle(Paint.Style.STROKE);
+
+        mIndicatorCanvas = new AndroidIndicatorCanvas(mBackPaint,mPaint,mFlashPaint);
+
+        mIndicatorStyle = shared ? style : null;
+        applyStyle(style);
+    }
+
+    /**
+     * 把外观配置应用到画笔和渲染器
+     * @param style
+     */
+    private void applyStyle(IndicatorStyle style){
+        mRenderer.setRadius(style.radius);
+        mRenderer.setInterval(style.interval);
+        mRenderer.setStyle(style.style);
+        mRenderer.setStripWidth(style.stripWidth);
+        mRenderer.setStripHeight(style.stripHeight);
+        mRenderer.hideBack(style.hideBack);
+        mRenderer.hideFlash(style.hideFlash);
+        mRenderer.setDurations(style.pointDuration,style.stickyDuration,style.rebuildDuration,style.flashDuration);
+        mRenderer.allowAnim(style.allowAnim);
+        mRenderer.setSpringMode(style.animMode == StickyIndicator.ANIM_MODE_SPRING);
+        mRenderer.useMetaball(style.useMetaball);
+        mRenderer.setRenderProfiles(style.idleRender,style.scrollRender);
+        mBackColor = style.backColor;
+        mColor = style.color;
+        updateColors();
+        isBackDirty = true;
+        resetQuality();
+    }
+
+    void setLayoutCallback(LayoutCallback callback){
+        mLayoutCallback = callback;
+    }
+
+    /**
+     * 由宿主View按MeasureSpec测量
+     * @return 测量结果是否变化
+     */
+    boolean measure(boolean wrapWidth,int width,boolean wrapHeight,int height){
+        final boolean changed = mRenderer.measure(wrapWidth,width,wrapHeight,height);
+        if(changed){
+            updatePaints();
+            isBackDirty = true;
+        }
+        return changed;
+    }
+
+    int getMeasuredWidth(){
+        return mRenderer.getMeasuredWidth();
+    }
+
+    int getMeasuredHeight(){
+        return mRenderer.getMeasuredHeight();
+    }
+
+    /**
+     * 数量、窗口大小或外观变化后重新计算布局
+     * 由宿主View测量时交给宿主,否则直接按绘制区域重新测量
+     */
+    private void onLayoutChanged(){
+        isBackDirty = true;
+        if(mLayoutCallback != null){
+            mLayoutCallback.onLayoutChanged();
+        }else{
+            measureBounds();
+        }
+    }
+
+    private void measureBounds(){
+        if(mMetrics != null){
+            mMetrics.onMeasure();
+        }
+        final Rect bounds = getBounds();
+        measure(false,bounds.width(),false,bounds.height());
+    }
+
+    /**
+     * 根据测量后的半径/长条高度设置画笔
+     */
+    private void updatePaints(){
+        if(mRenderer.getStyle() == IndicatorRenderer.STYLE_STRIP){
+            mPaint.setStyle(Paint.Style.STROKE);
+            mPaint.setStrokeWidth(mRenderer.getStripHeight());
+            mBackPaint.setStyle(Paint.Style.FILL);
+            mBackPaint.setStrokeWidth(mRenderer.getStripHeight());
+        }else if(mRenderer.getStyle() == IndicatorRenderer.STYLE_POINT_STROKE){
+            mPaint.setStyle(Paint.Style.FILL);
+            mBackPaint.setStyle(Paint.Style.STROKE);
+            mBackPaint.setStrokeWidth(mRenderer.getRadius() * 0.3f);
+        }else{
+            //共享配置可能在不同风格之间切换,需要恢复为实心
+            mPaint.setStyle(Paint.Style.FILL);
+            mBackPaint.setStyle(Paint.Style.FILL);
+        }
+    }
+
+    /**
+     * 颜色的透明度与{@link #setAlpha(int)}叠加
+     */
+    private void updateColors(){
+        mPaint.setColor(mColor);
+        mPaint.setAlpha(Color.alpha(mColor) * mAlpha / 255);
+        mBackPaint.setColor(mBackColor);
+        mBackPaint.setAlpha(Color.alpha(mBackColor) * mAlpha / 255);
+        mFlashPaint.setAlpha(mAlpha);
+    }
+
+    @Override
+    protected void onBoundsChange(Rect bounds) {
+        super.onBoundsChange(bounds);
+        if(mLayoutCallback == null){
+            measureBounds();
+        }
+        mRenderer.setHeight(bounds.height());
+        isBackDirty = true;
+        resetQuality();
+    }
+
+    @Override
+    public int getIntrinsicWidth() {
+        return mRenderer.getIntrinsicWidth();
+    }
+
+    @Override
+    public int getIntrinsicHeight() {
+        return mRenderer.getIntrinsicHeight();
+    }
+
+    @Override
+    public void draw(@NonNull Canvas canvas) {
+        final IndicatorMetrics metrics = mMetrics;
+        final QualityGovernor governor = mQualityGovernor;
+        long start = 0;
+        if(metrics != null){
+            Trace.beginSection("StickyIndicator#onDraw");
+        }
+        if(metrics != null || governor != null){
+            start = System.nanoTime();
+        }
+
+        //取走到期的滑动位置,滑动回调发生在绘制过程中时也不会晚一帧;被帧率上限推迟的位置留到它自己的那一帧
+        if(mPendingScroll.take()){
+            mRenderer.setPositionOffset(mPendingScroll.getPosition(),mPendingScroll.getOffset());
+        }
+
+        final Rect bounds = getBounds();
+        final int saveCount = canvas.save();
+        canvas.translate(bounds.left,bounds.top);
+
+        if(cacheBack && !mRenderer.isBackHidden()){
+            drawBackCache(canvas,bounds.width(),bounds.height());
+        }
+
+        //只绘制与裁剪区域相交的部分,局部重绘或部分滑出屏幕时跳过不可见的圆点/长条
+        if(canvas.getClipBounds(mClipRect)){
+            final boolean antiAlias = mRenderer.isMotionAntiAlias();
+            if(mPaint.isAntiAlias() != antiAlias){
+                mPaint.setAntiAlias(antiAlias);
+                mFlashPaint.setAntiAlias(antiAlias);
+            }
+            mIndicatorCanvas.setCanvas(canvas);
+            mRenderer.draw(mIndicatorCanvas,!cacheBack,mClipRect.left,mClipRect.top,mClipRect.right,mClipRect.bottom);
+            mIndicatorCanvas.setCanvas(null);
+        }
+        canvas.restoreToCount(saveCount);
+
+        computeMotionBounds(mDrawnMotionRect);
+
+        if(metrics != null){
+            metrics.onDraw(System.nanoTime() - start);
+            Trace.endSection();
+        }
+        if(governor != null && governor.onDraw(System.nanoTime() - start,canvas.isHardwareAccelerated(),
+                mRenderer.getEffectiveQualityLevels())){
+            //下一帧按新的级别整体重绘
+            mRenderer.setQualityLevel(governor.getLevel());
+            invalidateAll();
+        }
+    }
+
+    /**
+     * 只重绘当前圆点/长条和闪光圆环移动所经过的区域,
+     * 即上一次绘制时的区域和当前区域的并集
+     */
+    private void invalidateMotion(){
+        computeMotionBounds(mMotionRect);
+        invalidateMotionRect();
+    }
+
+    /**
+     * 重绘滑动到新位置后的区域,位置本身在绘制开始时才计算
+     */
+    private void invalidateScroll(int position,float offset){
+        if(!mRenderer.computeOffsetBounds(position,offset,mMotionBounds)){
+            return;
+        }
+        toMotionRect(mMotionBounds,mMotionRect);
+        invalidateMotionRect();
+    }
+
+    /**
+     * 重绘{@link #mMotionRect}与上一次绘制时的区域的并集
+     */
+    private void invalidateMotionRect(){
+        mMotionRect.union(mDrawnMotionRect);
+        final Rect bounds = getBounds();
+        mDirtyRect.set(mMotionRect.left + bounds.left,mMotionRect.top + bounds.top,
+                mMotionRect.right + bounds.left,mMotionRect.bottom + bounds.top);
+        if(mMetrics != null){
+            mMetrics.onInvalidate();
+        }
+
+        isMotionDirty = true;
+        invalidateSelf();
+        isMotionDirty = false;
+    }
+
+    /**
+     * 整体重绘
+     */
+    private void invalidateAll(){
+        if(mMetrics != null){
+            mMetrics.onInvalidate();
+        }
+        invalidateSelf();
+    }
+
+    /**
+     * 动画帧只需要重绘运动区域,其余情况为整个绘制区域
+     */
+    @NonNull
+    @Override
+    public Rect getDirtyBounds() {
+        return isMotionDirty ? mDirtyRect : getBounds();
+    }
+
+    /**
+     * 计算当前圆点/长条(包括粘连部分)和闪光圆环所占的区域
+     * @param outRect
+     */
+    private void computeMotionBounds(Rect outRect){
+        mRenderer.computeMotionBounds(mMotionBounds);
+        toMotionRect(mMotionBounds,outRect);
+    }
+
+    private static void toMotionRect(float[] bounds,Rect outRect){
+        //多留出2px给抗锯齿的边缘
+        outRect.set((int) Math.floor(bounds[0]) - 2,(int) Math.floor(bounds[1]) - 2,
+                (int) Math.ceil(bounds[2]) + 2,(int) Math.ceil(bounds[3]) + 2);
+    }
+
+    /**
+     * 绘制缓存的未选圆点/长条图层,图层失效时先重新绘制一次
+     * @param canvas
+     */
+    private void drawBackCache(Canvas canvas,int width,int height){
+        if(width <= 0 || height <= 0){
+            return;
+        }
+
+        if(mBackBitmap == null || mBackBitmap.getWidth() != width || mBackBitmap.getHeight() != height){
+            releaseBackCache();
+            mBackBitmap = Bitmap.createBitmap(width,height,Bitmap.Config.ARGB_8888);
+            mBackCanvas = new Canvas(mBackBitmap);
+            isBackDirty = true;
+        }
+
+        if(isBackDirty){
+            mBackBitmap.eraseColor(Color.TRANSPARENT);
+            mIndicatorCanvas.setCanvas(mBackCanvas);
+            mRenderer.drawBack(mIndicatorCanvas);
+            mIndicatorCanvas.setCanvas(null);
+            isBackDirty = false;
+        }
+
+        canvas.drawBitmap(mBackBitmap,0,0,null);
+    }
+
+    private void releaseBackCache(){
+        if(mBackBitmap != null){
+            mBackBitmap.recycle();
+            mBackBitmap = null;
+            mBackCanvas = null;
+        }
+        isBackDirty = true;
+    }
+
+    /**
+     * 不可见时停止动画并释放缓存图层和动画状态,期间的位置变化不播放动画也不重绘,
+     * 再次可见时直接显示在当前圆点/长条上
+     */
+    @Override
+    public boolean setVisible(boolean visible, boolean restart) {
+        final boolean changed = super.setVisible(visible,restart);
+        if(visible){
+            if(changed){
+                invalidateAll();
+            }
+        }else{
+            //共享的帧时钟是全局的,不可见时必须移除,避免持有已经不显示的宿主
+            stopTicking();
+            mPendingScroll.cancel();
+            releaseBackCache();
+            mRenderer.snapToCurrent();
+            mRenderer.releaseAnimState();
+        }
+        return changed;
+    }
+
+    @Override
+    public void setAlpha(int alpha) {
+        mAlpha = alpha;
+        updateColors();
+        isBackDirty = true;
+        invalidateAll();
+    }
+
+    @Override
+    public int getAlpha() {
+        return mAlpha;
+    }
+
+    @Override
+    public void setColorFilter(@Nullable ColorFilter colorFilter) {
+        mPaint.setColorFilter(colorFilter);
+        mBackPaint.setColorFilter(colorFilter);
+        mFlashPaint.setColorFilter(colorFilter);
+        isBackDirty = true;
+        invalidateAll();
+    }
+
+    @Override
+    public int getOpacity() {
+        return PixelFormat.TRANSLUCENT;
+    }
+
+    /**
+     * 获取触点所在的圆点/长条
+     * @param x 与{@link #getBounds()}同一坐标系
+     * @param y 与{@link #getBounds()}同一坐标系
+     * @return 圆点/长条的位置,未命中时返回-1
+     */
+    public int getPositionAt(float x, float y){
+        final Rect bounds = getBounds();
+        //mClickSlop用于增加2dp点击范围
+        return mRenderer.pointerOnPosition(x - bounds.left,y - bounds.top,mClickSlop);
+    }
+
+    void updateClickSlop(Context context){
+        mClickSlop = ScreenUtil.dipTopx(context,1);
+    }
+
+    private void runAnim(){
+        if(!isVisible()){
+            //不可见时只记录位置,再次可见时直接显示在当前位置
+            mRenderer.snapToCurrent();
+            return;
+        }
+
+        final long now = mFrameClock.now();
+        if(mMetrics != null){
+            mMetrics.onTransition(mRenderer.isAnimRunning());
+        }
+        if(mRenderer.startTransition(now)){
+            startTicking();
+        }else{
+            //没有动画时长时所有阶段已经在这一帧完成
+            stopTicking();
+        }
+
+        invalidateMotion();
+    }
+
+    private void startTicking(){
+        if(!isTicking && isVisible() && getCallback() != null){
+            isTicking = true;
+            mFrameClock.add(mFrameCallback);
+        }
+    }
+
+    private void stopTicking(){
+        if(isTicking){
+            isTicking = false;
+            mFrameClock.remove(mFrameCallback);
+        }
+    }
+
+    /**
+     * 设置当前圆点/长条的位置,播放切换动画
+     * @param newPosition 超出范围时取最近的位置
+     */
+    public void setPosition(int newPosition){
+        if(newPosition >= mRenderer.getCount()){
+            newPosition = mRenderer.getCount() - 1;
+        }
+
+        if(newPosition < 0){
+            newPosition = 0;
+        }
+
+        //新的位置覆盖还未计算的滑动
+        mPendingScroll.cancel();
+        if(mRenderer.setPosition(newPosition)){
+            //窗口发生了滑动,未选的圆点/长条需要整体重绘
+            isBackDirty = true;
+            invalidateAll();
+        }
+
+        runAnim();
+    }
+
+    /**
+     * 跟随滑动设置圆点/长条的中间位置,可用于任意横向滑动的控件,
+     * 例如ViewPager2的OnPageChangeCallback.onPageScrolled()
+     * 只记录最新的值并重绘,同一帧内多次调用时只有最后一次生效,在绘制开始时才计算位置
+     * 需要设置{@link #allowAnim}为true,否则不会有任何效果
+     * @param position 左侧的页面位置
+     * @param offset 向右侧页面滑过的比例,范围为[0,1)
+     * @see RecyclerViewIndicatorBinding
+     */
+    public void setPositionOffset(int position, float offset){
+        if(!isVisible()){
+            return;
+        }
+        mPendingScroll.set(position,offset);
+    }
+
+    /**
+     * 限制跟随滑动的帧率,高刷新率的屏幕上可以减少重绘,例如在120Hz的屏幕上只需要60fps的滑动效果
+     * @param fps 每秒最多更新的次数,小于等于0时不限制
+     */
+    public void setScrollFrameRate(int fps){
+        mPendingScroll.setFrameRate(fps);
+    }
+
+    /**
+     * 获取当前圆点/长条的位置
+     */
+    public int getCurrentPosition(){
+        return mRenderer.getCurrentIndex();
+    }
+
+    public int getCount(){
+        return mRenderer.getCount();
+    }
+
+    /**
+     * 设置圆点/长条的数量,当前位置超出范围时移到最后一个
+     * @param count 不能为负数
+     */
+    public void setCount(int count){
+        if(count < 0){
+            throw new IllegalArgumentException("indicator count < 0");
+        }
+        mRenderer.setCount(count);
+
+        if(mRenderer.getCurrentIndex() >= count){
+            mRenderer.setCurrentIndex(count - 1);
+        }
+
+        onLayoutChanged();
+        invalidateAll();
+    }
+
+    /**
+     * 是否隐藏未选的圆点/长条
+     * @param hide
+     */
+    public void hideBack(boolean hide){
+        mRenderer.hideBack(hide);
+        invalidateAll();
+    }
+
+    /**
+     * 是否缓存未选的圆点/长条
+     * 开启后未选的圆点/长条只会绘制一次到缓存图层中,之后每一帧直接绘制该图层,
+     * 只有在布局、颜色或数量变化时才会重新绘制,适合圆点/长条数量较多的情况
+     * @param cache
+     */
+    public void cacheBack(boolean cache){
+        cacheBack = cache;
+        if(!cache){
+            releaseBackCache();
+        }
+        invalidateAll();
+    }
+
+    /**
+     * 是否隐藏闪光效果
+     * @param hide
+     */
+    public void hideFlash(boolean hide){
+        mRenderer.hideFlash(hide);
+        invalidateAll();
+    }
+
+    /**
+     * 是否播放弹性动画
+     * @param allow
+     */
+    public void allowAnim(boolean allow){
+        mRenderer.allowAnim(allow);
+    }
+
+    /**
+     * 设置动画模式
+     * @param mode {@link StickyIndicator#ANIM_MODE_STICKY}或{@link StickyIndicator#ANIM_MODE_SPRING}
+     */
+    public void setAnimMode(int mode){
+        mRenderer.setSpringMode(mode == StickyIndicator.ANIM_MODE_SPRING);
+    }
+
+    /**
+     * 圆点风格下是否用元球轮廓绘制粘连部分
+     * 轮廓预先计算在所有指示器共用的查找表中,每一帧只做一次插值
+     * @param use
+     */
+    public void useMetaball(boolean use){
+        mRenderer.useMetaball(use);
+        invalidateAll();
+    }
+
+    /**
+     * 设置静止和滑动时的绘制配置
+     * @param idle 静止时的绘制配置,{@link IndicatorStyle#RENDER_STICKY}、{@link IndicatorStyle#RENDER_FLASH}
+     *             和{@link IndicatorStyle#RENDER_ANTI_ALIAS}的组合
+     * @param scroll 滑动时的绘制配置,通常去掉粘连部分和闪光以减少每一帧的绘制开销
+     */
+    public void setRenderProfiles(int idle,int scroll){
+        mRenderer.setRenderProfiles(idle,scroll);
+        invalidateAll();
+    }
+
+    /**
+     * 通知滑动状态,滑动时使用滑动的绘制配置
+     * 滑动停止后等正在播放的动画结束才恢复静止的绘制配置,不会在动画中途改变形状
+     * @param scrolling 是否正在拖动或惯性滑动
+     */
+    public void setScrolling(boolean scrolling){
+        if(mRenderer.setScrolling(scrolling)){
+            invalidateMotion();
+        }
+    }
+
+    /**
+     * 使用共享的外观配置,覆盖之前设置的颜色、尺寸、风格和动画参数
+     * @param style 不可变,可以被多个指示器共享
+     */
+    public void setIndicatorStyle(IndicatorStyle style){
+        mIndicatorStyle = style;
+        applyStyle(style);
+        onLayoutChanged();
+        invalidateAll();
+    }
+
+    /**
+     * 获取共享的外观配置
+     * @return 未使用共享配置时为null
+     */
+    @Nullable
+    public IndicatorStyle getIndicatorStyle(){
+        return mIndicatorStyle;
+    }
+
+    /**
+     * 替换驱动动画的帧时钟,正在播放的动画从新时钟的下一帧继续
+     * @param clock 为null时恢复默认的、与屏幕刷新同步的时钟
+     */
+    public void setFrameClock(FrameClock clock){
+        if(clock == null){
+            clock = IndicatorTicker.getInstance();
+        }
+        if(clock == mFrameClock){
+            return;
+        }
+
+        final boolean ticking = isTicking;
+        stopTicking();
+        mFrameClock = clock;
+        mPendingScroll.setFrameClock(clock);
+        if(ticking){
+            startTicking();
+        }
+    }
+
+    public FrameClock getFrameClock(){
+        return mFrameClock;
+    }
+
+    /**
+     * 是否开启性能统计
+     * 开启后统计绘制耗时、重绘次数、动画各阶段的实际时长、被打断的过渡次数和测量次数,
+     * 并在绘制、测量和动画帧中添加Trace区段,可以在Systrace/Perfetto中查看。
+     * 关闭时不做任何统计
+     * @param enabled
+     * @see #getMetrics()
+     */
+    public void setMetricsEnabled(boolean enabled){
+        if(enabled){
+            if(mMetrics == null){
+                mMetrics = new IndicatorMetrics();
+            }
+        }else{
+            mMetrics = null;
+        }
+        mRenderer.setMetrics(mMetrics);
+    }
+
+    /**
+     * 获取性能统计
+     * @return 未开启时为null
+     */
+    @Nullable
+    public IndicatorMetrics getMetrics(){
+        return mMetrics;
+    }
+
+    /**
+     * 是否根据绘制耗时自动调整绘制质量
+     * 每30次绘制统计一次平均耗时,超出预算时依次去掉元球轮廓、闪光和抗锯齿,
+     * 长时间远低于预算时再逐级恢复。软件绘制的Canvas使用更宽的预算
+     * @param enabled
+     */
+    public void setAdaptiveQuality(boolean enabled){
+        if(enabled == (mQualityGovernor != null)){
+            return;
+        }
+        mQualityGovernor = enabled ? new QualityGovernor() : null;
+        mRenderer.setQualityLevel(QualityGovernor.LEVEL_FULL);
+        invalidateAll();
+    }
+
+    public boolean isAdaptiveQuality(){
+        return mQualityGovernor != null;
+    }
+
+    /**
+     * 外观或尺寸变化后绘制开销也会变化,恢复完整效果重新统计
+     */
+    private void resetQuality(){
+        if(mQualityGovernor != null){
+            mQualityGovernor.reset();
+            mRenderer.setQualityLevel(QualityGovernor.LEVEL_FULL);
+        }
+    }
+
+    /**
+     * 设置窗口大小,圆点/长条个数超过窗口大小时,只显示窗口内的圆点/长条,
+     * 窗口随当前位置滑动,两侧边缘的圆点/长条会缩小。页面数量很多时,
+     * 绘制和点击判断的开销只与窗口大小有关
+     * @param maxVisibleCount 窗口大小,小于等于0时关闭窗口模式
+     */
+    public void setMaxVisibleCount(int maxVisibleCount){
+        mRenderer.setMaxVisibleCount(maxVisibleCount);
+        onLayoutChanged();
+        invalidateAll();
+    }
+
+    /**
+     * 设置当前圆点/长条的颜色
+     * @param color
+     */
+    public void setColor(int color){
+        mColor = color;
+        updateColors();
+        invalidateAll();
+    }
+
+    /**
+     * 设置未选的圆点/长条的颜色
+     * @param color
+     */
+    public void setBackColor(int color){
+        mBackColor = color;
+        updateColors();
+        isBackDirty = true;
+        invalidateAll();
+    }
+
+    /**
+     * 绑定数量和位置,直接跳到指定位置,不播放动画
+     * @param count 圆点/长条的数量
+     * @param position 当前位置
+     */
+    public void bind(int count, int position){
+        edit().setCount(count).setPosition(position).apply();
+    }
+
+    /**
+     * 开始批量修改,所有修改在{@link Editor#apply()}时一起生效,最多重新测量一次、重绘一次
+     * @return 复用同一个Editor,调用apply()之前不要再次调用edit()
+     */
+    public Editor edit(){
+        if(mEditor == null){
+            mEditor = new Editor();
+        }
+        mEditor.clear();
+        return mEditor;
+    }
+
+    /**
+     * 批量修改指示器,通过{@link #edit()}获取
+     */
+    public final class Editor {
+        private IndicatorStyle mStyle;
+        private int mCount;
+        private boolean hasCount;
+        private int mPosition;
+        private boolean hasPosition;
+        private int mMaxVisibleCount;
+        private boolean hasMaxVisibleCount;
+        private int mColor;
+        private boolean hasColor;
+        private int mBackColor;
+        private boolean hasBackColor;
+        private boolean hideBack;
+        private boolean hasHideBack;
+        private boolean hideFlash;
+        private boolean hasHideFlash;
+
+        private Editor(){
+        }
+
+        private void clear(){
+            mStyle = null;
+            hasCount = false;
+            hasPosition = false;
+            hasMaxVisibleCount = false;
+            hasColor = false;
+            hasBackColor = false;
+            hasHideBack = false;
+            hasHideFlash = false;
+        }
+
+        public Editor setIndicatorStyle(IndicatorStyle style){
+            mStyle = style;
+            return this;
+        }
+
+        public Editor setCount(int count){
+            if(count < 0){
+                throw new IllegalArgumentException("indicator count < 0");
+            }
+            mCount = count;
+            hasCount = true;
+            return this;
+        }
+
+        /**
+         * 直接跳到该位置,不播放动画
+         */
+        public Editor setPosition(int position){
+            mPosition = position;
+            hasPosition = true;
+            return this;
+        }
+
+        public Editor setMaxVisibleCount(int maxVisibleCount){
+            mMaxVisibleCount = maxVisibleCount;
+            hasMaxVisibleCount = true;
+            return this;
+        }
+
+        public Editor setColor(int color){
+            mColor = color;
+            hasColor = true;
+            return this;
+        }
+
+        public Editor setBackColor(int color){
+            mBackColor = color;
+            hasBackColor = true;
+            return this;
+        }
+
+        public Editor hideBack(boolean hide){
+            hideBack = hide;
+            hasHideBack = true;
+            return this;
+        }
+
+        public Editor hideFlash(boolean hide){
+            hideFlash = hide;
+            hasHideFlash = true;
+            return this;
+        }
+
+        /**
+         * 使所有修改生效
+         */
+        public void apply(){
+            boolean layoutChanged = false;
+
+            if(mStyle != null){
+                mIndicatorStyle = mStyle;
+                applyStyle(mStyle);
+                layoutChanged = true;
+            }
+            if(hasCount && mCount != mRenderer.getCount()){
+                mRenderer.setCount(mCount);
+                layoutChanged = true;
+            }
+            if(hasMaxVisibleCount){
+                mRenderer.setMaxVisibleCount(mMaxVisibleCount);
+                layoutChanged = true;
+            }
+            if(hasColor){
+                StickyIndicatorDrawable.this.mColor = mColor;
+            }
+            if(hasBackColor){
+                StickyIndicatorDrawable.this.mBackColor = mBackColor;
+                isBackDirty = true;
+            }
+            if(hasColor || hasBackColor){
+                updateColors();
+            }
+            if(hasHideBack){
+                mRenderer.hideBack(hideBack);
+            }
+            if(hasHideFlash){
+                mRenderer.hideFlash(hideFlash);
+            }
+
+            final int count = mRenderer.getCount();
+            int position = hasPosition ? mPosition : mRenderer.getCurrentIndex();
+            if(position >= count){
+                position = count - 1;
+            }
+            if(position < 0){
+                position = 0;
+            }
+
+            if(layoutChanged){
+                //先按新的数量设置位置,重新测量时圆点/长条会直接布局到该位置
+                mRenderer.setCurrentIndex(position);
+                onLayoutChanged();
+            }
+            if(hasPosition || layoutChanged){
+                mRenderer.jumpTo(position);
+                stopTicking();
+            }
+
+            clear();
+            invalidateAll();
+        }
+    }
+}
@@ -0,0 +1,487 @@
+package com.example.stickyindicator;
+
+import android.content.Context;
+import android.content.res.TypedArray;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.PorterDuff;
+import android.graphics.Rect;
+import android.graphics.SurfaceTexture;
+import android.graphics.drawable.Drawable;
+import android.os.Handler;
+import android.os.HandlerThread;
+import android.os.Process;
+import android.os.SystemClock;
+import android.support.annotation.Nullable;
+import android.util.AttributeSet;
+import android.view.Choreographer;
+import android.view.TextureView;
+import android.view.View;
+import android.view.ViewTreeObserver;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 在独立的渲染线程中绘制的指示器,主线程卡顿时动画仍然流畅
+ * 主线程只通过无锁的原子变量交出目标位置和滑动位置,渲染线程每一帧取走最新的值,
+ * 由自己的Choreographer驱动动画并绘制到TextureView的Surface上。
+ * 数量和外观等不常变化的配置通过Handler发送到渲染线程。
+ * 与{@link StickyIndicator}相比不支持点击,适合主线程经常繁忙的页面。
+ * XML中支持外观属性以及count、maxVisibleCount和currentIndex,不支持cacheBack、indicatorClickable和adaptiveQuality
+ */
+public class StickyIndicatorTextureView extends TextureView implements TextureView.SurfaceTextureListener {
+    private static final int NO_POSITION = -1;
+    private static final long NO_OFFSET = Long.MIN_VALUE;
+
+    /**
+     * 以下配置只在主线程读写,渲染线程启动时和变化时发送给渲染线程
+     */
+    private IndicatorStyle mStyle;
+    private int mCount = 1;
+    private int mMaxVisibleCount;
+    private int mCurrentPosition;
+
+    /**
+     * 只用于在主线程测量自适应的尺寸,不绘制
+     */
+    private IndicatorRenderer mMeasureRenderer = new IndicatorRenderer();
+
+    /**
+     * 主线程到渲染线程的交接:最新的目标位置,以及最新的滑动位置(高32位为页面位置,低32位为滑过的比例)
+     * 同一帧内的多次更新只保留最后一次
+     */
+    private final AtomicInteger mPendingPosition = new AtomicInteger(NO_POSITION);
+    private final AtomicLong mPendingOffset = new AtomicLong(NO_OFFSET);
+
+    private RenderThread mRenderThread;
+
+    /**
+     * 自身、所有父布局和窗口都可见时才在渲染线程中驱动动画
+     */
+    private boolean isIndicatorVisible;
+
+    public StickyIndicatorTextureView(Context context) {
+        this(context,(AttributeSet) null);
+    }
+
+    public StickyIndicatorTextureView(Context context, @Nullable AttributeSet attrs) {
+        super(context, attrs);
+
+        TypedArray typedArray = context.obtainStyledAttributes(attrs, R.styleable.StickyIndicator);
+        init(StickyIndicator.readStyle(context,typedArray));
+        mCount = Math.max(typedArray.getInteger(R.styleable.StickyIndicator_count,1),0);
+        mMaxVisibleCount = typedArray.getInteger(R.styleable.StickyIndicator_maxVisibleCount,0);
+        mCurrentPosition = Math.max(Math.min(typedArray.getInt(R.styleable.StickyIndicator_currentIndex,0),mCount - 1),0);
+        typedArray.recycle();
+        applyMeasureConfig();
+    }
+
+    /**
+     * @param context
+     * @param style 可以被多个指示器共享
+     */
+    public StickyIndicatorTextureView(Context context, IndicatorStyle style) {
+        super(context);
+        init(style);
+    }
+
+    private void init(IndicatorStyle style){
+        setOpaque(false);
+        setSurfaceTextureListener(this);
+        mStyle = style;
+        applyMeasureConfig();
+    }
+
+    private void applyMeasureConfig(){
+        mMeasureRenderer.setRadius(mStyle.radius);
+        mMeasureRenderer.setInterval(mStyle.interval);
+        mMeasureRenderer.setStyle(mStyle.style);
+        mMeasureRenderer.setStripWidth(mStyle.stripWidth);
+        mMeasureRenderer.setStripHeight(mStyle.stripHeight);
+        mMeasureRenderer.setCount(mCount);
+        mMeasureRenderer.setMaxVisibleCount(mMaxVisibleCount);
+    }
+
+    @Override
+    protected void onMeasure(int widthMeasureSpec, int heightMeasureSpec) {
+        mMeasureRenderer.measure(MeasureSpec.getMode(widthMeasureSpec) == MeasureSpec.AT_MOST,
+                MeasureSpec.getSize(widthMeasureSpec),
+                MeasureSpec.getMode(heightMeasureSpec) == MeasureSpec.AT_MOST,
+                MeasureSpec.getSize(heightMeasureSpec));
+        setMeasuredDimension(mMeasureRenderer.getMeasuredWidth(),mMeasureRenderer.getMeasuredHeight());
+    }
+
+    /**
+     * 设置当前圆点/长条的位置,在渲染线程的下一帧开始播放切换动画
+     * @param newPosition 超出范围时取最近的位置
+     */
+    public void setPosition(int newPosition){
+        if(newPosition >= mCount){
+            newPosition = mCount - 1;
+        }
+        if(newPosition < 0){
+            newPosition = 0;
+        }
+
+        mCurrentPosition = newPosition;
+        mPendingPosition.set(newPosition);
+        wakeRenderThread();
+    }
+
+    /**
+     * 跟随滑动设置圆点/长条的中间位置,同一帧内只有最后一次生效
+     * @param position 左侧的页面位置
+     * @param offset 向右侧页面滑过的比例,范围为[0,1)
+     */
+    public void setPositionOffset(int position, float offset){
+        mPendingOffset.set(((long) position << 32) | (Float.floatToRawIntBits(offset) & 0xFFFFFFFFL));
+        wakeRenderThread();
+    }
+
+    public int getCurrentPosition(){
+        return mCurrentPosition;
+    }
+
+    public int getCount(){
+        return mCount;
+    }
+
+    /**
+     * 设置圆点/长条的数量
+     * @param count 不能为负数
+     */
+    public void setCount(int count){
+        if(count < 0){
+            throw new IllegalArgumentException("indicator count < 0");
+        }
+        mCount = count;
+        if(mCurrentPosition >= count){
+            mCurrentPosition = Math.max(count - 1,0);
+        }
+        onConfigChanged();
+    }
+
+    /**
+     * 设置窗口大小
+     * @param maxVisibleCount 窗口大小,小于等于0时关闭窗口模式
+     * @see StickyIndicator#setMaxVisibleCount(int)
+     */
+    public void setMaxVisibleCount(int maxVisibleCount){
+        mMaxVisibleCount = maxVisibleCount;
+        onConfigChanged();
+    }
+
+    /**
+     * 使用共享的外观配置
+     * @param style 不可变,可以被多个指示器共享
+     */
+    public void setIndicatorStyle(IndicatorStyle style){
+        mStyle = style;
+        onConfigChanged();
+    }
+
+    public IndicatorStyle getIndicatorStyle(){
+        return mStyle;
+    }
+
+    private void onConfigChanged(){
+        applyMeasureConfig();
+        requestLayout();
+        if(mRenderThread != null){
+            mRenderThread.postConfig(mStyle,mCount,mMaxVisibleCount,mCurrentPosition);
+        }
+    }
+
+    @Override
+    protected void onAttachedToWindow() {
+        super.onAttachedToWindow();
+        final ViewTreeObserver observer = getViewTreeObserver();
+        observer.addOnScrollChangedListener(mOnScreenListener);
+        observer.addOnGlobalLayoutListener(mOnScreenListener);
+        updateIndicatorVisible();
+    }
+
+    @Override
+    protected void onDetachedFromWindow() {
+        super.onDetachedFromWindow();
+        final ViewTreeObserver observer = getViewTreeObserver();
+        observer.removeOnScrollChangedListener(mOnScreenListener);
+        observer.removeOnGlobalLayoutListener(mOnScreenListener);
+        setIndicatorVisible(false);
+    }
+
+    @Override
+    protected void onVisibilityChanged(View changedView, int visibility) {
+        super.onVisibilityChanged(changedView, visibility);
+        updateIndicatorVisible();
+    }
+
+    @Override
+    protected void onWindowVisibilityChanged(int visibility) {
+        super.onWindowVisibilityChanged(visibility);
+        updateIndicatorVisible();
+    }
+
+    /**
+     * 任意父布局滑动或重新布局后,重新检查指示器是否还在屏幕上
+     */
+    private final class OnScreenListener implements ViewTreeObserver.OnScrollChangedListener,
+            ViewTreeObserver.OnGlobalLayoutListener {
+        @Override
+        public void onScrollChanged() {
+            updateIndicatorVisible();
+        }
+
+        @Override
+        public void onGlobalLayout() {
+            updateIndicatorVisible();
+        }
+    }
+
+    private final OnScreenListener mOnScreenListener = new OnScreenListener();
+    private final Rect mVisibleRect = new Rect();
+
+    /**
+     * 滑出ScrollView等父布局的可见区域时同样视为不可见
+     */
+    private void updateIndicatorVisible(){
+        setIndicatorVisible(isAttachedToWindow() && getWindowVisibility() == VISIBLE && isShown()
+                && getGlobalVisibleRect(mVisibleRect));
+    }
+
+    /**
+     * 不可见时渲染线程停止动画并不再请求帧,再次可见时直接绘制在当前位置
+     */
+    private void setIndicatorVisible(boolean visible){
+        if(visible == isIndicatorVisible){
+            return;
+        }
+        isIndicatorVisible = visible;
+        if(mRenderThread != null){
+            mRenderThread.postVisible(visible);
+        }
+    }
+
+    private void wakeRenderThread(){
+        if(mRenderThread != null){
+            mRenderThread.wake();
+        }
+    }
+
+    @Override
+    public void onSurfaceTextureAvailable(SurfaceTexture surface, int width, int height) {
+        mRenderThread = new RenderThread();
+        mRenderThread.startRendering(mStyle,mCount,mMaxVisibleCount,mCurrentPosition,isIndicatorVisible,width,height);
+    }
+
+    @Override
+    public void onSurfaceTextureSizeChanged(SurfaceTexture surface, int width, int height) {
+        if(mRenderThread != null){
+            mRenderThread.postSize(width,height);
+        }
+    }
+
+    @Override
+    public boolean onSurfaceTextureDestroyed(SurfaceTexture surface) {
+        if(mRenderThread != null){
+            //等待渲染线程结束,之后不会再使用该Surface
+            mRenderThread.stopRendering();
+            mRenderThread = null;
+        }
+        return true;
+    }
+
+    @Override
+    public void onSurfaceTextureUpdated(SurfaceTexture surface) {
+    }
+
+    /**
+     * 渲染线程,拥有自己的Looper和Choreographer,除标注的方法外只在该线程中访问
+     */
+    private final class RenderThread extends HandlerThread implements Choreographer.FrameCallback, Drawable.Callback {
+        private Handler mHandler;
+        private StickyIndicatorDrawable mDrawable;
+
+        /**
+         * 每一帧推进到该帧的时间,动画和渲染在同一个回调中完成
+         */
+        private ManualFrameClock mClock;
+        private boolean isDirty;
+        private boolean isFramePosted;
+        private boolean isInFrame;
+
+        /**
+         * 主线程连续更新时只唤醒一次
+         */
+        private final AtomicBoolean isWakePosted = new AtomicBoolean();
+        private final Runnable mWakeRunnable = new Runnable() {
+            @Override
+            public void run() {
+                isWakePosted.set(false);
+                postFrame();
+            }
+        };
+
+        RenderThread(){
+            super("StickyIndicatorRender",Process.THREAD_PRIORITY_DISPLAY);
+        }
+
+        /**
+         * 在主线程调用
+         */
+        void startRendering(final IndicatorStyle style,final int count,final int maxVisibleCount,final int position,
+                            final boolean visible,final int width,final int height){
+            start();
+            mHandler = new Handler(getLooper());
+            mHandler.post(new Runnable() {
+                @Override
+                public void run() {
+                    mClock = new ManualFrameClock(SystemClock.uptimeMillis());
+                    mDrawable = new StickyIndicatorDrawable(getContext(),style,true);
+                    mDrawable.setFrameClock(mClock);
+                    mDrawable.setVisible(visible,false);
+                    mDrawable.setCallback(RenderThread.this);
+                    mDrawable.setBounds(0,0,width,height);
+                    mDrawable.edit().setCount(count).setMaxVisibleCount(maxVisibleCount).setPosition(position).apply();
+                    isDirty = true;
+                    postFrame();
+                }
+            });
+        }
+
+        /**
+         * 在主线程调用
+         */
+        void postConfig(final IndicatorStyle style,final int count,final int maxVisibleCount,final int position){
+            mHandler.post(new Runnable() {
+                @Override
+                public void run() {
+                    mDrawable.edit().setIndicatorStyle(style).setCount(count)
+                            .setMaxVisibleCount(maxVisibleCount).setPosition(position).apply();
+                }
+            });
+        }
+
+        /**
+         * 在主线程调用
+         */
+        void postSize(final int width,final int height){
+            mHandler.post(new Runnable() {
+                @Override
+                public void run() {
+                    mDrawable.setBounds(0,0,width,height);
+                    isDirty = true;
+                    postFrame();
+                }
+            });
+        }
+
+        /**
+         * 在主线程调用
+         */
+        void postVisible(final boolean visible){
+            mHandler.post(new Runnable() {
+                @Override
+                public void run() {
+                    mDrawable.setVisible(visible,false);
+                    if(visible){
+                        isDirty = true;
+                        postFrame();
+                    }
+                }
+            });
+        }
+
+        /**
+         * 在主线程调用
+         */
+        void wake(){
+            if(isWakePosted.compareAndSet(false,true)){
+                mHandler.post(mWakeRunnable);
+            }
+        }
+
+        /**
+         * 在主线程调用,处理完已发送的消息后结束线程
+         */
+        void stopRendering(){
+            quitSafely();
+            try{
+                join();
+            }catch(InterruptedException e){
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        private void postFrame(){
+            if(!isFramePosted){
+                isFramePosted = true;
+                Choreographer.getInstance().postFrameCallback(this);
+            }
+        }
+
+        @Override
+        public void doFrame(long frameTimeNanos) {
+            isFramePosted = false;
+            isInFrame = true;
+
+            //滑动位置在这一帧绘制开始时计算
+            final long offset = mPendingOffset.getAndSet(NO_OFFSET);
+            if(offset != NO_OFFSET){
+                mDrawable.setPositionOffset((int) (offset >> 32),Float.intBitsToFloat((int) offset));
+            }
+
+            //先把正在播放的动画推进到这一帧,新的过渡从这一帧开始
+            final long frameTimeMillis = frameTimeNanos / 1000000;
+            mClock.advance(Math.max(frameTimeMillis - mClock.now(),0));
+
+            final int position = mPendingPosition.getAndSet(NO_POSITION);
+            if(position != NO_POSITION){
+                mDrawable.setPosition(position);
+            }
+
+            isInFrame = false;
+            if(isDirty){
+                render();
+            }
+            if(mClock.hasCallbacks()){
+                postFrame();
+            }
+        }
+
+        private void render(){
+            isDirty = false;
+            final Canvas canvas = lockCanvas();
+            if(canvas == null){
+                return;
+            }
+            try{
+                canvas.drawColor(Color.TRANSPARENT,PorterDuff.Mode.CLEAR);
+                mDrawable.draw(canvas);
+            }finally{
+                unlockCanvasAndPost(canvas);
+            }
+        }
+
+        @Override
+        public void invalidateDrawable(Drawable who) {
+            isDirty = true;
+            //帧回调中的重绘在本帧结束时完成
+            if(!isInFrame){
+                postFrame();
+            }
+        }
+
+        @Override
+        public void scheduleDrawable(Drawable who, Runnable what, long when) {
+            mHandler.postAtTime(what,who,when);
+        }
+
+        @Override
+        public void unscheduleDrawable(Drawable who, Runnable what) {
+            mHandler.removeCallbacks(what,who);
+        }
+    }
+}
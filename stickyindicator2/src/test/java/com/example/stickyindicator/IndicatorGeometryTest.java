@@ -0,0 +1,61 @@
+package com.example.stickyindicator;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * 几何模型与逐个计算位置的结果一致
+ */
+public class IndicatorGeometryTest {
+    @Test
+    public void pointStyle_matchesFormula() throws Exception {
+        IndicatorGeometry geometry = new IndicatorGeometry();
+        geometry.layout(false,6,10,15,0,0);
+
+        assertEquals(35f, geometry.getPitch(), 0f);
+        for(int i = 0;i < 6;i++){
+            assertEquals(15f / 2 + 10 + i * (10 * 2 + 15), geometry.getSlotX(i), 0.0001f);
+            assertEquals(1f, geometry.getSlotScale(i), 0f);
+        }
+        //窗口外的位置按同样的间距推算
+        assertEquals(15f / 2 + 10 - 35, geometry.getSlotX(-1), 0.0001f);
+        assertEquals(15f / 2 + 10 + 6 * 35, geometry.getSlotX(6), 0.0001f);
+    }
+
+    @Test
+    public void stripStyle_matchesFormula() throws Exception {
+        IndicatorGeometry geometry = new IndicatorGeometry();
+        geometry.layout(true,4,0,12,30,8);
+
+        assertEquals(42f, geometry.getPitch(), 0f);
+        for(int i = 0;i < 4;i++){
+            assertEquals(6f + i * 42, geometry.getSlotX(i), 0.0001f);
+        }
+        assertEquals(1, geometry.findSlot(6 + 42 + 15,20,20,0));
+        assertEquals(-1, geometry.findSlot(6 + 42 + 15,30,20,0));
+    }
+
+    @Test
+    public void edgeScales_shrinkWindowEdges() throws Exception {
+        IndicatorGeometry geometry = new IndicatorGeometry();
+        geometry.layout(false,5,10,10,0,0);
+
+        //窗口在最左侧,只有右侧边缘缩小
+        geometry.updateEdgeScales(0,20);
+        assertEquals(1f, geometry.getSlotScale(0), 0f);
+        assertEquals(0.75f, geometry.getSlotScale(3), 0f);
+        assertEquals(0.5f, geometry.getSlotScale(4), 0f);
+
+        geometry.updateEdgeScales(5,20);
+        assertEquals(0.5f, geometry.getSlotScale(0), 0f);
+        assertEquals(0.75f, geometry.getSlotScale(1), 0f);
+        assertEquals(1f, geometry.getSlotScale(2), 0f);
+        assertEquals(0.5f, geometry.getSlotScale(4), 0f);
+
+        //全部显示时不缩小
+        geometry.updateEdgeScales(0,5);
+        assertEquals(1f, geometry.getSlotScale(0), 0f);
+        assertEquals(1f, geometry.getSlotScale(4), 0f);
+    }
+}
@@ -0,0 +1,270 @@
+package com.example.stickyindicator;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * 测量不修改配置的值,重复测量不打断正在进行的动画
+ */
+public class IndicatorRendererTest {
+    private IndicatorRenderer mRenderer;
+
+    @Before
+    public void setUp() throws Exception {
+        mRenderer = new IndicatorRenderer();
+        mRenderer.setCount(5);
+        mRenderer.setRadius(10);
+        mRenderer.setInterval(20);
+        mRenderer.allowAnim(true);
+    }
+
+    @Test
+    public void measure_keepsConfiguredGeometry() throws Exception {
+        mRenderer.measure(true,0,true,0);
+        assertEquals(200, mRenderer.getMeasuredWidth());
+
+        //宽度不足时缩小半径
+        assertTrue(mRenderer.measure(false,50,true,0));
+        assertEquals(5f, mRenderer.getRadius(), 0f);
+
+        //再次自适应宽度时恢复为配置的半径和间隔
+        assertTrue(mRenderer.measure(true,0,true,0));
+        assertEquals(10f, mRenderer.getRadius(), 0f);
+        assertEquals(200, mRenderer.getMeasuredWidth());
+    }
+
+    @Test
+    public void measure_repeatPassKeepsAnimation() throws Exception {
+        assertTrue(mRenderer.measure(false,200,false,40));
+        mRenderer.setHeight(40);
+
+        mRenderer.setPosition(3);
+        assertTrue(mRenderer.startTransition(0));
+        assertTrue(mRenderer.tick(100));
+        final float x = mRenderer.getPointX();
+
+        //父布局以相同的MeasureSpec重复测量
+        assertFalse(mRenderer.measure(false,200,false,40));
+        assertFalse(mRenderer.measure(false,200,false,40));
+        assertTrue(mRenderer.isAnimRunning());
+        assertEquals(x, mRenderer.getPointX(), 0f);
+
+        assertTrue(mRenderer.tick(200));
+        assertTrue(mRenderer.getPointX() > x);
+    }
+
+    @Test
+    public void measure_cachedSpecDoesNotReposition() throws Exception {
+        mRenderer.measure(true,300,true,100);
+        mRenderer.measure(false,300,false,100);
+        mRenderer.setPosition(1);
+        mRenderer.startTransition(0);
+
+        //之前测量过的MeasureSpec直接取缓存,结果不变时不会重新放置
+        assertFalse(mRenderer.measure(false,300,false,100));
+        assertFalse(mRenderer.measure(false,300,false,100));
+        assertTrue(mRenderer.isAnimRunning());
+    }
+
+    @Test
+    public void drawBack_batchesTrack() throws Exception {
+        mRenderer.setCount(1000);
+        mRenderer.measure(true,0,true,0);
+        mRenderer.setHeight(mRenderer.getMeasuredHeight());
+
+        RecordingCanvas canvas = new RecordingCanvas();
+        mRenderer.drawBack(canvas);
+        assertEquals(1, canvas.batches);
+        assertEquals(1000, canvas.batchedSlots);
+        assertEquals(0, canvas.circles);
+
+        //窗口模式下边缘缩小的圆点按大小分段,每段一次
+        mRenderer.setMaxVisibleCount(7);
+        mRenderer.measure(true,0,true,0);
+        mRenderer.jumpTo(500);
+        canvas = new RecordingCanvas();
+        mRenderer.drawBack(canvas);
+        assertEquals(5, canvas.batches);
+        assertEquals(7, canvas.batchedSlots);
+
+        mRenderer.setStyle(IndicatorRenderer.STYLE_STRIP);
+        mRenderer.measure(true,0,true,0);
+        canvas = new RecordingCanvas();
+        mRenderer.drawBack(canvas);
+        assertEquals(1, canvas.batches);
+        assertEquals(7, canvas.batchedSlots);
+    }
+
+    @Test
+    public void draw_skipsOutsideClip() throws Exception {
+        mRenderer.setCount(1000);
+        mRenderer.measure(true,0,true,0);
+        mRenderer.setHeight(mRenderer.getMeasuredHeight());
+        final float pitch = mRenderer.getPostionX(1) - mRenderer.getPostionX(0);
+        final float height = mRenderer.getMeasuredHeight();
+
+        //只绘制与裁剪区域相交的圆点,当前圆点在最左侧,不绘制
+        RecordingCanvas canvas = new RecordingCanvas();
+        mRenderer.draw(canvas,true,pitch * 100,0,pitch * 110,height);
+        assertTrue(canvas.batchedSlots >= 10 && canvas.batchedSlots <= 14);
+        assertTrue(canvas.minX <= pitch * 100 && canvas.maxX >= pitch * 110);
+        assertEquals(0, canvas.circles);
+        assertEquals(0, canvas.paths);
+
+        //裁剪区域在圆点上方时什么都不绘制
+        canvas = new RecordingCanvas();
+        mRenderer.draw(canvas,true,0,-100,pitch * 1000,-50);
+        assertEquals(0, canvas.batches);
+        assertEquals(0, canvas.circles);
+
+        canvas = new RecordingCanvas();
+        mRenderer.draw(canvas,true,0,0,pitch,height);
+        assertTrue(canvas.batchedSlots <= 3);
+        assertEquals(2, canvas.circles);
+    }
+
+    @Test
+    public void animState_createdOnDemandAndReleasedAtTarget() throws Exception {
+        mRenderer.measure(false,200,false,40);
+        mRenderer.setHeight(40);
+        assertFalse(mRenderer.hasAnimState());
+
+        //不播放动画时直接跳到目标位置,不创建动画状态
+        mRenderer.allowAnim(false);
+        mRenderer.setPosition(2);
+        assertFalse(mRenderer.startTransition(0));
+        assertFalse(mRenderer.hasAnimState());
+        assertEquals(mRenderer.getPostionX(2), mRenderer.getPointX(), 0f);
+
+        mRenderer.allowAnim(true);
+        mRenderer.setPosition(4);
+        assertTrue(mRenderer.startTransition(0));
+        assertTrue(mRenderer.hasAnimState());
+
+        //动画进行中释放,跳到目标位置
+        mRenderer.releaseAnimState();
+        assertFalse(mRenderer.hasAnimState());
+        assertFalse(mRenderer.isAnimRunning());
+        assertEquals(mRenderer.getPostionX(4), mRenderer.getPointX(), 0f);
+
+        //再次需要时重新创建
+        mRenderer.setPosition(1);
+        assertTrue(mRenderer.startTransition(1000));
+        assertTrue(mRenderer.hasAnimState());
+    }
+
+    @Test
+    public void renderProfile_idleRestoredAfterAnimation() throws Exception {
+        mRenderer.measure(false,200,false,40);
+        mRenderer.setHeight(40);
+        mRenderer.setRenderProfiles(IndicatorRenderer.RENDER_FULL,IndicatorRenderer.RENDER_FLASH);
+
+        //滑动时立即切换,只绘制当前位置的圆点,不使用抗锯齿
+        assertTrue(mRenderer.setScrolling(true));
+        assertFalse(mRenderer.isMotionAntiAlias());
+        mRenderer.setPositionOffset(0,0.5f);
+        RecordingCanvas canvas = new RecordingCanvas();
+        mRenderer.draw(canvas,false);
+        assertEquals(1, canvas.circles);
+        assertEquals(0, canvas.paths);
+
+        //停止滑动时动画还在进行,保持滑动配置
+        mRenderer.setPosition(1);
+        assertTrue(mRenderer.startTransition(0));
+        assertFalse(mRenderer.setScrolling(false));
+        assertFalse(mRenderer.isMotionAntiAlias());
+
+        //动画结束后恢复静止配置
+        long now = 0;
+        while(mRenderer.tick(now)){
+            now += 16;
+        }
+        assertTrue(mRenderer.isMotionAntiAlias());
+        canvas = new RecordingCanvas();
+        mRenderer.draw(canvas,false);
+        assertEquals(2, canvas.circles);
+        assertEquals(1, canvas.paths);
+    }
+
+    @Test
+    public void renderProfile_simpleShapeStaysBeforeTarget() throws Exception {
+        final int[] styles = {IndicatorRenderer.STYLE_STRIP,IndicatorRenderer.STYLE_POINT_FILL};
+        for(int style : styles){
+            mRenderer = new IndicatorRenderer();
+            mRenderer.setCount(5);
+            mRenderer.setRadius(10);
+            mRenderer.setInterval(20);
+            mRenderer.setStyle(style);
+            mRenderer.setStripWidth(30);
+            mRenderer.setStripHeight(10);
+            mRenderer.allowAnim(true);
+            mRenderer.measure(true,0,true,0);
+            mRenderer.setHeight(mRenderer.getMeasuredHeight());
+            mRenderer.setRenderProfiles(IndicatorRenderer.RENDER_FULL,0);
+            mRenderer.setScrolling(true);
+
+            //目标位置所占的范围
+            final float targetRight;
+            if(style == IndicatorRenderer.STYLE_STRIP){
+                targetRight = mRenderer.getPostionX(3) + 30;
+            }else{
+                targetRight = mRenderer.getPostionX(3) + 10;
+            }
+
+            mRenderer.setPosition(3);
+            long now = 0;
+            boolean running = mRenderer.startTransition(now);
+            while(running){
+                final RecordingCanvas canvas = new RecordingCanvas();
+                mRenderer.draw(canvas,false);
+                assertTrue(canvas.shapeMaxX <= targetRight + 0.01f);
+                final float[] bounds = new float[4];
+                mRenderer.computeMotionBounds(bounds);
+                assertTrue(bounds[0] <= canvas.shapeMinX && bounds[2] >= canvas.shapeMaxX);
+                now += 16;
+                running = mRenderer.tick(now);
+            }
+        }
+    }
+
+    @Test
+    public void qualityLevels_onlyIncludeUsedEffects() throws Exception {
+        //默认不使用元球轮廓
+        assertEquals((1 << QualityGovernor.LEVEL_FULL) | (1 << QualityGovernor.LEVEL_NO_FLASH)
+                | (1 << QualityGovernor.LEVEL_NO_ANTI_ALIAS), mRenderer.getEffectiveQualityLevels());
+
+        mRenderer.useMetaball(true);
+        mRenderer.hideFlash(true);
+        assertEquals((1 << QualityGovernor.LEVEL_FULL) | (1 << QualityGovernor.LEVEL_NO_METABALL)
+                | (1 << QualityGovernor.LEVEL_NO_ANTI_ALIAS), mRenderer.getEffectiveQualityLevels());
+    }
+
+    @Test
+    public void strokeTrack_pathBuiltOnlyWhenTrackChanges() throws Exception {
+        mRenderer.setStyle(IndicatorRenderer.STYLE_POINT_STROKE);
+        mRenderer.setCount(100);
+        mRenderer.measure(true,0,true,0);
+        mRenderer.setHeight(mRenderer.getMeasuredHeight());
+
+        //合并路径覆盖全部圆点,裁剪区域只影响是否绘制
+        final RecordingCanvas canvas = new RecordingCanvas();
+        mRenderer.draw(canvas,true);
+        mRenderer.draw(canvas,true,0,0,100,100);
+        mRenderer.setPosition(3);
+        mRenderer.startTransition(0);
+        mRenderer.tick(100);
+        mRenderer.draw(canvas,true);
+        assertEquals(1, canvas.circlePathBuilds);
+        assertEquals(100, canvas.circlePathSlots);
+        assertEquals(3, canvas.batches);
+
+        //数量变化后重新构建
+        mRenderer.setCount(50);
+        mRenderer.measure(true,0,true,0);
+        mRenderer.draw(canvas,true);
+        assertEquals(2, canvas.circlePathBuilds);
+        assertEquals(50, canvas.circlePathSlots);
+    }
+}
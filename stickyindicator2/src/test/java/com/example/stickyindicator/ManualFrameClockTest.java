@@ -0,0 +1,79 @@
+package com.example.stickyindicator;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * 用手动时钟逐帧驱动动画,每一帧的时间和帧数都是确定的
+ */
+public class ManualFrameClockTest {
+    private static final long FRAME = 16;
+
+    @Test
+    public void transition_stepsFrameByFrame() throws Exception {
+        final ManualFrameClock clock = new ManualFrameClock(1000);
+        final IndicatorRenderer renderer = new IndicatorRenderer();
+        renderer.setCount(5);
+        renderer.setRadius(10);
+        renderer.setInterval(20);
+        renderer.allowAnim(true);
+        renderer.setDurations(160,160,160,160);
+        renderer.measure(true,0,true,0);
+        renderer.setHeight(renderer.getMeasuredHeight());
+
+        final float startX = renderer.getPointX();
+        renderer.setPosition(1);
+        assertTrue(renderer.startTransition(clock.now()));
+        clock.add(new FrameClock.Callback() {
+            @Override
+            public void onFrame(long frameTimeMillis) {
+                if(!renderer.tick(frameTimeMillis)){
+                    clock.remove(this);
+                }
+            }
+        });
+
+        //弹出阶段进行到一半
+        clock.advance(5 * FRAME);
+        assertEquals(1080, clock.now());
+        final float halfX = renderer.getPointX();
+        assertTrue(halfX > startX && halfX < renderer.getPostionX(1));
+
+        //弹出160ms,弹回和闪光160ms,在第20帧结束并移除回调
+        assertEquals(15, clock.advanceFrames(FRAME,100));
+        assertFalse(clock.hasCallbacks());
+        assertFalse(renderer.isAnimRunning());
+        assertEquals(renderer.getPostionX(1), renderer.getPointX(), 0f);
+    }
+
+    @Test
+    public void callbacks_canBeRemovedAndAddedDuringFrame() throws Exception {
+        final ManualFrameClock clock = new ManualFrameClock();
+        final int[] frames = new int[2];
+        final FrameClock.Callback second = new FrameClock.Callback() {
+            @Override
+            public void onFrame(long frameTimeMillis) {
+                frames[1]++;
+            }
+        };
+        clock.add(new FrameClock.Callback() {
+            @Override
+            public void onFrame(long frameTimeMillis) {
+                frames[0]++;
+                clock.remove(this);
+                //新添加的回调从下一帧开始调用
+                clock.add(second);
+            }
+        });
+
+        clock.advance(FRAME);
+        assertEquals(1, frames[0]);
+        assertEquals(0, frames[1]);
+        clock.advance(FRAME);
+        assertEquals(1, frames[0]);
+        assertEquals(1, frames[1]);
+        clock.remove(second);
+        assertFalse(clock.hasCallbacks());
+    }
+}
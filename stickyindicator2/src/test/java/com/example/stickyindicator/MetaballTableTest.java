@@ -0,0 +1,43 @@
+package com.example.stickyindicator;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * 查找表插值得到的元球轮廓应与直接计算的结果一致
+ */
+public class MetaballTableTest {
+    @Test
+    public void lookup_matchesDirectComputation() throws Exception {
+        MetaballTable table = MetaballTable.getInstance();
+        float[] expected = new float[MetaballTable.STRIDE];
+        float[] actual = new float[MetaballTable.STRIDE];
+
+        //两圆相切(距离为2)附近轮廓变化最快,误差最大约为半径的3%,半径10px时不到半个像素
+        for(float distance = 0;distance < MetaballTable.MAX_DISTANCE;distance += 0.013f){
+            MetaballTable.compute(distance,expected,0);
+            assertTrue(table.lookup(distance,actual));
+            for(int i = 0;i < MetaballTable.STRIDE;i++){
+                assertEquals("distance " + distance + " value " + i, expected[i], actual[i], 0.04f);
+            }
+        }
+    }
+
+    @Test
+    public void outline_startsAndEndsOnCircles() throws Exception {
+        float[] outline = new float[MetaballTable.STRIDE];
+        for(float distance = 0.5f;distance < MetaballTable.MAX_DISTANCE;distance += 0.5f){
+            MetaballTable.compute(distance,outline,0);
+            assertEquals(1f, (float) Math.hypot(outline[0],outline[1]), 0.0001f);
+            assertEquals(1f, (float) Math.hypot(outline[6] - distance,outline[7]), 0.0001f);
+        }
+    }
+
+    @Test
+    public void lookup_separatesBeyondMaxDistance() throws Exception {
+        float[] outline = new float[MetaballTable.STRIDE];
+        assertFalse(MetaballTable.getInstance().lookup(MetaballTable.MAX_DISTANCE,outline));
+        assertFalse(MetaballTable.getInstance().lookup(Float.NaN,outline));
+    }
+}
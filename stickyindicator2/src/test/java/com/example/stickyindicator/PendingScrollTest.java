@@ -0,0 +1,108 @@
+package com.example.stickyindicator;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * 滑动位置只在到期时通知和取走,帧回调在到期的那一帧移除
+ */
+public class PendingScrollTest {
+    private static final long FRAME = 16;
+
+    private ManualFrameClock mClock;
+    private PendingScroll mScroll;
+    private int mDue;
+
+    @Before
+    public void setUp() throws Exception {
+        mClock = new ManualFrameClock(1000);
+        mDue = 0;
+        mScroll = new PendingScroll(mClock,new PendingScroll.Callback() {
+            @Override
+            public void onScrollDue(int position, float offset) {
+                mDue++;
+            }
+        });
+    }
+
+    @Test
+    public void uncapped_notifiesWithoutFrameCallback() throws Exception {
+        mScroll.set(0,0.1f);
+        assertEquals(1, mDue);
+        assertFalse(mClock.hasCallbacks());
+        assertTrue(mScroll.take());
+        assertFalse(mScroll.take());
+
+        mScroll.set(0,0.2f);
+        mScroll.set(1,0.3f);
+        assertEquals(3, mDue);
+        assertTrue(mScroll.take());
+        assertEquals(1, mScroll.getPosition());
+        assertEquals(0.3f, mScroll.getOffset(), 0f);
+    }
+
+    @Test
+    public void capped_defersUntilDueFrameOnce() throws Exception {
+        mScroll.setFrameRate(60);
+        mScroll.set(0,0.1f);
+        assertEquals(1, mDue);
+        assertTrue(mScroll.take());
+
+        //间隔不足时推迟,期间其他原因引起的绘制不会取走
+        mScroll.set(0,0.2f);
+        mScroll.set(0,0.3f);
+        assertEquals(1, mDue);
+        assertTrue(mClock.hasCallbacks());
+        assertFalse(mScroll.take());
+        mClock.advance(FRAME / 2);
+        assertEquals(1, mDue);
+        assertFalse(mScroll.take());
+
+        //到期的那一帧只通知一次,并移除帧回调
+        mClock.advance(FRAME / 2);
+        assertEquals(2, mDue);
+        assertFalse(mClock.hasCallbacks());
+        assertTrue(mScroll.take());
+        assertEquals(0.3f, mScroll.getOffset(), 0f);
+        mClock.advanceFrames(FRAME,10);
+        assertEquals(2, mDue);
+    }
+
+    @Test
+    public void cancel_removesFrameCallback() throws Exception {
+        mScroll.setFrameRate(60);
+        mScroll.set(0,0.1f);
+        mScroll.take();
+        mScroll.set(0,0.2f);
+        assertTrue(mClock.hasCallbacks());
+
+        mScroll.cancel();
+        assertFalse(mClock.hasCallbacks());
+        assertFalse(mScroll.take());
+        mClock.advance(FRAME);
+        assertEquals(1, mDue);
+    }
+
+    @Test
+    public void clockIdleAfterBurst() throws Exception {
+        //与渲染线程相同:每一帧推进时钟,有重绘时在帧末绘制并取走滑动位置
+        mScroll.setFrameRate(60);
+        int draws = 0;
+        for(int i = 0;i < 20;i++){
+            mScroll.set(0,i / 20f);
+            mClock.advance(FRAME / 2);
+            if(mDue > draws){
+                assertTrue(mScroll.take());
+                draws++;
+            }
+        }
+        //120Hz的输入只绘制一半的帧
+        assertTrue(draws <= 11);
+
+        assertTrue(mClock.advanceFrames(FRAME / 2,100) <= 2);
+        assertFalse(mClock.hasCallbacks());
+        assertFalse(mScroll.isPosted());
+    }
+}
@@ -0,0 +1,98 @@
+package com.example.stickyindicator;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * 超出预算时立即降级,远低于预算时延迟升级,升级后马上超出预算的级别等待更久
+ */
+public class QualityGovernorTest {
+    private QualityGovernor mGovernor;
+
+    @Before
+    public void setUp() throws Exception {
+        mGovernor = new QualityGovernor();
+    }
+
+    /**
+     * 以相同的耗时绘制一个窗口
+     * @return 级别是否变化
+     */
+    private boolean drawWindow(long nanos,boolean hardware){
+        return drawWindow(nanos,hardware,QualityGovernor.ALL_LEVELS);
+    }
+
+    private boolean drawWindow(long nanos,boolean hardware,int levels){
+        boolean changed = false;
+        for(int i = 0;i < QualityGovernor.WINDOW;i++){
+            changed |= mGovernor.onDraw(nanos,hardware,levels);
+        }
+        return changed;
+    }
+
+    @Test
+    public void overBudget_stepsDownOneLevelPerWindow() throws Exception {
+        final long expensive = QualityGovernor.BUDGET_HARDWARE * 2;
+        assertTrue(drawWindow(expensive,true));
+        assertEquals(QualityGovernor.LEVEL_NO_METABALL, mGovernor.getLevel());
+        assertTrue(drawWindow(expensive,true));
+        assertTrue(drawWindow(expensive,true));
+        assertEquals(QualityGovernor.LEVEL_NO_ANTI_ALIAS, mGovernor.getLevel());
+
+        //已经是最低级别
+        assertFalse(drawWindow(expensive,true));
+        assertEquals(QualityGovernor.LEVEL_NO_ANTI_ALIAS, mGovernor.getLevel());
+    }
+
+    @Test
+    public void softwareCanvas_usesWiderBudget() throws Exception {
+        assertFalse(drawWindow(QualityGovernor.BUDGET_HARDWARE * 2,false));
+        assertEquals(QualityGovernor.LEVEL_FULL, mGovernor.getLevel());
+        assertTrue(drawWindow(QualityGovernor.BUDGET_SOFTWARE * 2,false));
+        assertEquals(QualityGovernor.LEVEL_NO_METABALL, mGovernor.getLevel());
+    }
+
+    @Test
+    public void underBudget_stepsUpWithHysteresis() throws Exception {
+        drawWindow(QualityGovernor.BUDGET_HARDWARE * 2,true);
+
+        //略低于预算时不升级
+        for(int i = 0;i < QualityGovernor.UP_WINDOWS * 2;i++){
+            assertFalse(drawWindow(QualityGovernor.BUDGET_HARDWARE * 3 / 4,true));
+        }
+
+        final long cheap = QualityGovernor.BUDGET_HARDWARE / 4;
+        for(int i = 1;i < QualityGovernor.UP_WINDOWS;i++){
+            assertFalse(drawWindow(cheap,true));
+        }
+        assertTrue(drawWindow(cheap,true));
+        assertEquals(QualityGovernor.LEVEL_FULL, mGovernor.getLevel());
+
+        //升级后马上超出预算,下次需要两倍的窗口数才会再次升级
+        assertTrue(drawWindow(QualityGovernor.BUDGET_HARDWARE * 2,true));
+        for(int i = 1;i < QualityGovernor.UP_WINDOWS * 2;i++){
+            assertFalse(drawWindow(cheap,true));
+        }
+        assertTrue(drawWindow(cheap,true));
+        assertEquals(QualityGovernor.LEVEL_FULL, mGovernor.getLevel());
+    }
+
+    @Test
+    public void levelsWithoutEffect_areSkipped() throws Exception {
+        //未使用元球轮廓,也没有闪光
+        final int levels = (1 << QualityGovernor.LEVEL_FULL) | (1 << QualityGovernor.LEVEL_NO_ANTI_ALIAS);
+        assertTrue(drawWindow(QualityGovernor.BUDGET_HARDWARE * 2,true,levels));
+        assertEquals(QualityGovernor.LEVEL_NO_ANTI_ALIAS, mGovernor.getLevel());
+        assertFalse(drawWindow(QualityGovernor.BUDGET_HARDWARE * 2,true,levels));
+
+        //恢复时也直接回到完整效果
+        final long cheap = QualityGovernor.BUDGET_HARDWARE / 4;
+        for(int i = 1;i < QualityGovernor.UP_WINDOWS;i++){
+            assertFalse(drawWindow(cheap,true,levels));
+        }
+        assertTrue(drawWindow(cheap,true,levels));
+        assertEquals(QualityGovernor.LEVEL_FULL, mGovernor.getLevel());
+    }
+}
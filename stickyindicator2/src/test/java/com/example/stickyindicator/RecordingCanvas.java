@@ -0,0 +1,110 @@
+package com.example.stickyindicator;
+
+/**
+ * 记录每一次绘制调用的测试用绘制目标
+ */
+class RecordingCanvas implements IndicatorCanvas {
+    int circles;
+    int lines;
+    int paths;
+    int rings;
+
+    /**
+     * 批量绘制的次数,以及绘制的圆点/长条总数
+     */
+    int batches;
+    int batchedSlots;
+
+    /**
+     * 批量绘制中最左和最右的锚点
+     */
+    float minX = Float.MAX_VALUE;
+    float maxX = -Float.MAX_VALUE;
+
+    /**
+     * 单独绘制的圆点和长条所覆盖的最左和最右位置
+     */
+    float shapeMinX = Float.MAX_VALUE;
+    float shapeMaxX = -Float.MAX_VALUE;
+
+    @Override
+    public void drawCircle(float cx, float cy, float radius, int paint) {
+        circles++;
+        shapeMinX = Math.min(shapeMinX,cx - radius);
+        shapeMaxX = Math.max(shapeMaxX,cx + radius);
+    }
+
+    @Override
+    public void drawLine(float startX, float startY, float stopX, float stopY, int paint) {
+        lines++;
+        shapeMinX = Math.min(shapeMinX,Math.min(startX,stopX));
+        shapeMaxX = Math.max(shapeMaxX,Math.max(startX,stopX));
+    }
+
+    @Override
+    public void drawPoints(float[] pts, int offset, int count, float size, int paint) {
+        record(pts,offset,count,2);
+    }
+
+    @Override
+    public void drawLines(float[] pts, int offset, int count, int paint) {
+        record(pts,offset,count,4);
+    }
+
+    /**
+     * 构建合并路径的次数,以及构建时的圆的个数
+     */
+    int circlePathBuilds;
+    int circlePathSlots;
+
+    @Override
+    public void buildCirclePath(float[] circles, int offset, int count) {
+        circlePathBuilds++;
+        circlePathSlots = count / 3;
+    }
+
+    @Override
+    public void drawCirclePath(int paint) {
+        batches++;
+        batchedSlots += circlePathSlots;
+    }
+
+    private void record(float[] values,int offset,int count,int stride){
+        batches++;
+        batchedSlots += count / stride;
+        for(int i = offset;i < offset + count;i += stride){
+            minX = Math.min(minX,values[i]);
+            maxX = Math.max(maxX,values[i]);
+        }
+    }
+
+    @Override
+    public void drawRing(float cx, float cy, float radius, float strokeWidth) {
+        rings++;
+    }
+
+    @Override
+    public void pathReset() {
+    }
+
+    @Override
+    public void pathMoveTo(float x, float y) {
+    }
+
+    @Override
+    public void pathLineTo(float x, float y) {
+    }
+
+    @Override
+    public void pathQuadTo(float x1, float y1, float x2, float y2) {
+    }
+
+    @Override
+    public void pathCubicTo(float x1, float y1, float x2, float y2, float x3, float y3) {
+    }
+
+    @Override
+    public void drawPath(int paint) {
+        paths++;
+    }
+}
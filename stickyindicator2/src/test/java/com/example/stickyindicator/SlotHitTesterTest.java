@@ -0,0 +1,113 @@
+package com.example.stickyindicator;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * 将O(1)的点击判断与原来逐个检查的实现逐一比较
+ */
+public class SlotHitTesterTest {
+    private static final int LAYOUTS = 500;
+    private static final int TOUCHES = 200;
+
+    @Test
+    public void pointStyle_matchesLinearScan() throws Exception {
+        Random random = new Random(42);
+        for(int n = 0;n < LAYOUTS;n++){
+            final int count = 1 + random.nextInt(n % 10 == 0 ? 10000 : 20);
+            final float radius = 1 + random.nextFloat() * 30;
+            //间隔可能很小,使相邻圆点的点击范围重叠
+            final float interval = random.nextFloat() * radius * 3;
+            final int height = (int) (radius * 3);
+            final int slop = 1 + random.nextInt(3);
+            final float width = count * (radius * 2 + interval);
+
+            for(int t = 0;t < TOUCHES;t++){
+                float x = random.nextFloat() * (width + 40) - 20;
+                float y = random.nextFloat() * height;
+                assertEquals("count=" + count + " x=" + x + " y=" + y,
+                        linearPoint(x,y,count,radius,interval,height,slop),
+                        SlotHitTester.find(x,y,interval / 2 + radius,radius * 2 + interval,radius,radius,
+                                height / 2,radius,slop,count));
+            }
+        }
+    }
+
+    @Test
+    public void stripStyle_matchesLinearScan() throws Exception {
+        Random random = new Random(7);
+        for(int n = 0;n < LAYOUTS;n++){
+            final int count = 1 + random.nextInt(n % 10 == 0 ? 10000 : 20);
+            final float stripWidth = 1 + random.nextFloat() * 60;
+            final float stripHeight = 1 + random.nextFloat() * 20;
+            final float interval = random.nextFloat() * stripWidth;
+            final int height = (int) (stripHeight * 1.5f);
+            final int slop = 1 + random.nextInt(3);
+            final float width = count * (stripWidth + interval);
+
+            for(int t = 0;t < TOUCHES;t++){
+                float x = random.nextFloat() * (width + 40) - 20;
+                float y = random.nextFloat() * height;
+                assertEquals("count=" + count + " x=" + x + " y=" + y,
+                        linearStrip(x,y,count,stripWidth,stripHeight,interval,height,slop),
+                        SlotHitTester.find(x,y,interval / 2,stripWidth + interval,0,stripWidth,
+                                height / 2,stripHeight / 2,slop,count));
+            }
+        }
+    }
+
+    @Test
+    public void edges_matchLinearScan() throws Exception {
+        final int count = 5;
+        final float radius = 10;
+        final float interval = 20;
+        final int height = 30;
+        final int slop = 2;
+        //正好落在每个圆点点击范围的边界上
+        for(int i = 0;i < count;i++){
+            final float centerX = interval / 2 + radius + i * (radius * 2 + interval);
+            final float[] xs = {centerX - radius - slop,centerX + radius + slop,
+                    Math.nextAfter(centerX - radius - slop,Double.NEGATIVE_INFINITY),
+                    Math.nextUp(centerX + radius + slop)};
+            for(float x : xs){
+                assertEquals(linearPoint(x,height / 2,count,radius,interval,height,slop),
+                        SlotHitTester.find(x,height / 2,interval / 2 + radius,radius * 2 + interval,radius,radius,
+                                height / 2,radius,slop,count));
+            }
+        }
+    }
+
+    /**
+     * 原StickyIndicator.pointerOnPosition()中圆点风格的实现
+     */
+    private static int linearPoint(float x,float y,int count,float radius,float interval,int height,int dp_1){
+        for(int i = 0;i < count;i++){
+            final float centerX = interval / 2 + radius + i * (radius * 2 + interval);
+            final float centerY = height / 2;
+            if(x >= centerX - radius - dp_1 && x <= centerX + radius + dp_1 &&
+                    y >= centerY - radius - dp_1 && y <= centerY + radius + dp_1){
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * 原StickyIndicator.pointerOnPosition()中长条风格的实现
+     */
+    private static int linearStrip(float x,float y,int count,float stripWidth,float stripHeight,
+                                   float interval,int height,int dp_1){
+        for(int i = 0;i < count;i++){
+            final float startX = interval / 2 + i * (stripWidth + interval);
+            final float centerY = height / 2;
+            if(x >= startX - dp_1 && x <= startX + stripWidth + dp_1 &&
+                    y >= centerY - stripHeight / 2 - dp_1 && y <= centerY + stripHeight / 2 + dp_1){
+                return i;
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,185 @@
+package com.example.stickyindicator;
+
+import org.junit.Assume;
+import org.junit.Test;
+
+import java.lang.management.ManagementFactory;
+
+import static org.junit.Assert.*;
+
+/**
+ * 逐帧驱动弹性动画状态,确认动画热路径上没有任何对象分配
+ */
+public class StickyAnimStateTest {
+    private static final int FRAMES = 10000;
+
+    @Test
+    public void frames_doNotAllocate() throws Exception {
+        java.lang.management.ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+        Assume.assumeTrue(threadBean instanceof com.sun.management.ThreadMXBean);
+        com.sun.management.ThreadMXBean bean = (com.sun.management.ThreadMXBean) threadBean;
+        Assume.assumeTrue(bean.isThreadAllocatedMemorySupported());
+        bean.setThreadAllocatedMemoryEnabled(true);
+
+        StickyAnimState state = newState();
+        long threadId = Thread.currentThread().getId();
+
+        //预热,排除类加载和JIT编译带来的分配
+        runFrames(state);
+
+        //读取计数器本身的开销
+        long overhead = -bean.getThreadAllocatedBytes(threadId) + bean.getThreadAllocatedBytes(threadId);
+
+        long before = bean.getThreadAllocatedBytes(threadId);
+        runFrames(state);
+        long allocated = bean.getThreadAllocatedBytes(threadId) - before;
+
+        assertTrue("allocated " + allocated + " bytes in " + FRAMES + " frames", allocated <= overhead);
+    }
+
+    @Test
+    public void frames_reachEndValues() throws Exception {
+        StickyAnimState state = newState();
+        state.updatePoint(1f);
+        state.updateSticky(1f);
+        state.updateFlash(1f);
+
+        assertEquals(state.pointTo, state.pointX, 0f);
+        assertEquals(state.stickyTo, state.stickyX, 0f);
+        assertEquals(0f, state.flashRadius, 0f);
+    }
+
+    @Test
+    public void timeline_keepsPhaseTimings() throws Exception {
+        StickyAnimState state = new StickyAnimState();
+        state.setDurations(300,300,300,300);
+        state.start(1000,100,false,0,20);
+
+        assertTrue(state.tick(1150));
+        assertTrue(state.pointX > 0 && state.pointX < 100);
+        assertFalse(state.isSticking());
+
+        //弹出阶段在300ms时结束,弹回和闪光同时开始
+        assertTrue(state.tick(1300));
+        assertEquals(100f, state.pointX, 0.001f);
+        assertTrue(state.isSticking());
+        assertTrue(state.tick(1450));
+        assertTrue(state.flashRadius > 0);
+
+        //弹回和闪光在600ms时结束,圆点风格没有恢复长度阶段
+        assertFalse(state.tick(1600));
+        assertEquals(101f, state.stickyX, 0.001f);
+        assertEquals(0f, state.flashRadius, 0f);
+    }
+
+    @Test
+    public void timeline_stripRebuildsAfterSticky() throws Exception {
+        StickyAnimState state = new StickyAnimState();
+        state.setDurations(300,300,300,300);
+        state.start(0,100,true,30,10);
+
+        assertTrue(state.tick(600));
+        assertFalse(state.isSticking());
+        assertTrue(state.tick(750));
+        assertFalse(state.tick(900));
+        //恢复后长条回到目标位置,长度恢复为stripWidth
+        assertEquals(100f, state.pointX, 0.001f);
+        assertEquals(131f, state.stickyX, 0.001f);
+    }
+
+    @Test
+    public void timeline_withoutDurationsFinishesInOneTick() throws Exception {
+        StickyAnimState state = new StickyAnimState();
+        state.setDurations(0,0,0,0);
+        state.start(0,100,true,30,10);
+
+        assertFalse(state.tick(0));
+        assertEquals(100f, state.pointX, 0.001f);
+    }
+
+    @Test
+    public void spring_retargetKeepsMotion() throws Exception {
+        StickyAnimState state = new StickyAnimState();
+        state.setDurations(300,300,300,300);
+        state.setSpringMode(true);
+        state.start(0,100,false,0,20);
+
+        long now = 0;
+        while(now < 160){
+            now += 16;
+            assertTrue(state.tick(now));
+        }
+        final float x = state.pointX;
+        assertTrue(x > 0 && x < 100);
+
+        //新的目标不会让圆点跳变或重新开始,而是沿着当前的速度继续运动
+        state.start(now,300,false,0,20);
+        state.tick(now);
+        assertEquals(x, state.pointX, 0f);
+        now += 16;
+        state.tick(now);
+        assertTrue(state.pointX > x);
+
+        while(state.tick(now)){
+            now += 16;
+            assertTrue("spring did not settle", now < 5000);
+        }
+        assertEquals(300f, state.pointX, 0f);
+        assertEquals(300f, state.stickyX, 0f);
+    }
+
+    @Test
+    public void metrics_recordActualPhaseDurations() throws Exception {
+        IndicatorMetrics metrics = new IndicatorMetrics();
+        StickyAnimState state = new StickyAnimState();
+        state.setMetrics(metrics);
+        state.setDurations(300,300,300,300);
+        state.start(0,100,true,30,10);
+
+        long now = 0;
+        while(state.tick(now)){
+            now += 16;
+        }
+        assertEquals(300, metrics.getLastPhaseMillis(IndicatorMetrics.PHASE_POP));
+        assertEquals(300, metrics.getLastPhaseMillis(IndicatorMetrics.PHASE_STICK));
+        assertEquals(300, metrics.getLastPhaseMillis(IndicatorMetrics.PHASE_REBUILD));
+        assertEquals(300, metrics.getLastPhaseMillis(IndicatorMetrics.PHASE_FLASH));
+
+        //弹出阶段进行到一半时开始新的过渡,记录被打断时的实际时长
+        state.start(now,200,true,30,10);
+        state.tick(now + 150);
+        state.start(now + 150,300,true,30,10);
+        assertEquals(2, metrics.getPhaseCount(IndicatorMetrics.PHASE_POP));
+        assertEquals(150, metrics.getLastPhaseMillis(IndicatorMetrics.PHASE_POP));
+    }
+
+    private static StickyAnimState newState(){
+        StickyAnimState state = new StickyAnimState();
+        state.pointFrom = 10;
+        state.pointTo = 250;
+        state.stickyFrom = 10;
+        state.stickyTo = 251;
+        state.rebuildFrom = 250;
+        state.rebuildTo = 235;
+        state.flashTo = 40;
+        return state;
+    }
+
+    private static void runFrames(StickyAnimState state){
+        for(int i = 0;i <= FRAMES;i++){
+            float fraction = (float) i / FRAMES;
+            state.updatePoint(fraction);
+            state.updateSticky(fraction);
+            state.updateRebuild(fraction,250,30);
+            state.updateFlash(fraction);
+        }
+
+        state.setDurations(300,300,300,300);
+        for(int i = 0;i < FRAMES;i++){
+            if(i % 60 == 0){
+                state.start(i * 16L,(i % 120) * 10,i % 240 == 0,30,20);
+            }
+            state.tick(i * 16L);
+        }
+    }
+}